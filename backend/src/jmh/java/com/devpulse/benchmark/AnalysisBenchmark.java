@@ -0,0 +1,86 @@
+package com.devpulse.benchmark;
+
+import com.devpulse.analysis.ActivityAccumulator;
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.EventBatchParser;
+import com.devpulse.service.AnalysisService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of turning a GitHub events payload into the /api/analyze response:
+ * JSON deserialization, columnar packing, the single accumulation pass and the full
+ * pipeline. Run with {@code -prof gc} to see allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+
+    private static final TypeReference<List<Map<String, Object>>> LIST_OF_MAPS = new TypeReference<>() {};
+
+    @Param({"30", "300", "3000", "100000"})
+    public int events;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AnalysisService analysisService = new AnalysisService(null, null, null, null, null, new SimpleMeterRegistry(), Clock.systemUTC());
+    private final EventBatchParser eventParser = new EventBatchParser(objectMapper.getFactory(), EventBatchParser.SUPPORTED_FIELDS);
+
+    private byte[] json;
+    private List<Map<String, Object>> maps;
+    private EventBatch batch;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = SyntheticGitHubEvents.eventsJson(events, 42);
+        maps = objectMapper.readValue(json, LIST_OF_MAPS);
+        batch = EventBatch.fromEvents(maps);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> deserializeMaps() throws IOException {
+        return objectMapper.readValue(json, LIST_OF_MAPS);
+    }
+
+    @Benchmark
+    public EventBatch packBatch() {
+        return EventBatch.fromEvents(maps);
+    }
+
+    @Benchmark
+    public EventBatch parseStreaming() throws IOException {
+        return eventParser.parse(json);
+    }
+
+    @Benchmark
+    public ActivitySnapshot accumulate() {
+        return new ActivityAccumulator().addAll(batch).snapshot();
+    }
+
+    @Benchmark
+    public Map<String, Object> analyzePipeline() throws IOException {
+        EventBatch parsed = eventParser.parse(json);
+        return analysisService.buildAnalysis("octodev", analysisService.snapshot(parsed));
+    }
+}
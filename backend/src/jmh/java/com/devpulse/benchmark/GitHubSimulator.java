@@ -0,0 +1,328 @@
+package com.devpulse.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the GitHub REST API, so DevPulse can be load-tested without a token
+ * or quota: start it, point github.api.base-url at it and drive the backend with
+ * {@link LoadTest}.
+ *
+ * <p>Serves {@code /users/{u}}, {@code /users/{u}/events}, {@code /users/{u}/repos},
+ * {@code /orgs/{o}/members} and {@code /repos/{owner}/{repo}}. Responses are replayed from
+ * {@code --recordings} when a file {@code <dir>/<path>.json} exists (e.g.
+ * {@code users/octocat/events.json}) and generated deterministically per user otherwise.
+ * Like the real API it paginates arrays with a Link header, answers If-None-Match with a
+ * 304 that costs no quota, and sends X-RateLimit-* headers, failing with 403 once the
+ * quota of the current window is spent.
+ *
+ * <p>Options, all {@code --name=value}: port (8090), latency-ms (50), jitter-ms (25),
+ * events per user (300), repos per user (30), members per organization (50),
+ * rate-limit (5000), reset-seconds (3600), seed (42), recordings (none), threads (200).
+ */
+public final class GitHubSimulator {
+
+    private static final int DEFAULT_PER_PAGE = 30;
+    private static final int MAX_PER_PAGE = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path recordings;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final int eventsPerUser;
+    private final int reposPerUser;
+    private final int membersPerOrg;
+    private final int rateLimit;
+    private final long resetSeconds;
+    private final long seed;
+
+    /** Full (unpaginated) documents by path, generated or read once */
+    private final Map<String, JsonNode> documents = new ConcurrentHashMap<>();
+
+    private long windowReset;
+    private int used;
+
+    private GitHubSimulator(Map<String, String> options) {
+        this.recordings = options.containsKey("recordings") ? Path.of(options.get("recordings")).toAbsolutePath().normalize() : null;
+        this.latencyMillis = Long.parseLong(options.getOrDefault("latency-ms", "50"));
+        this.jitterMillis = Long.parseLong(options.getOrDefault("jitter-ms", "25"));
+        this.eventsPerUser = Integer.parseInt(options.getOrDefault("events", "300"));
+        this.reposPerUser = Integer.parseInt(options.getOrDefault("repos", "30"));
+        this.membersPerOrg = Integer.parseInt(options.getOrDefault("members", "50"));
+        this.rateLimit = Integer.parseInt(options.getOrDefault("rate-limit", "5000"));
+        this.resetSeconds = Long.parseLong(options.getOrDefault("reset-seconds", "3600"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        HttpServer server = start(options);
+        System.out.printf("GitHub simulator on http://localhost:%d (latency %s+%s ms, quota %s/%ss)%n",
+            server.getAddress().getPort(), options.getOrDefault("latency-ms", "50"), options.getOrDefault("jitter-ms", "25"),
+            options.getOrDefault("rate-limit", "5000"), options.getOrDefault("reset-seconds", "3600"));
+    }
+
+    /**
+     * Starts a simulator in this JVM, e.g. for {@link StartupBenchmark}; stop it with
+     * {@code server.stop(0)}.
+     */
+    static HttpServer start(Map<String, String> options) throws IOException {
+        GitHubSimulator simulator = new GitHubSimulator(options);
+        int port = Integer.parseInt(options.getOrDefault("port", "8090"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "200"));
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/", simulator::handle);
+        server.setExecutor(Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "github-simulator");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return server;
+    }
+
+    /**
+     * {@code --name=value} arguments; a bare {@code --name} means "true".
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Expected --name=value: " + arg);
+            int equals = arg.indexOf('=');
+            if (equals < 0) options.put(arg.substring(2), "true");
+            else options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            sleep(latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0));
+
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath().replaceAll("/+$", "");
+            Map<String, String> query = parseQuery(uri.getRawQuery());
+
+            JsonNode document = document(path);
+            if (document == null) {
+                send(exchange, 404, json(Map.of("message", "Not Found")), null);
+                return;
+            }
+
+            byte[] body;
+            String link = null;
+            if (document.isArray()) {
+                int perPage = Math.min(MAX_PER_PAGE, Math.max(1, intParam(query, "per_page", DEFAULT_PER_PAGE)));
+                int page = Math.max(1, intParam(query, "page", 1));
+                int lastPage = Math.max(1, (document.size() + perPage - 1) / perPage);
+                List<JsonNode> slice = new ArrayList<>(perPage);
+                for (int i = (page - 1) * perPage; i < Math.min(document.size(), page * perPage); i++) slice.add(document.get(i));
+                body = objectMapper.writeValueAsBytes(slice);
+                link = link(exchange, path, perPage, page, lastPage);
+            } else {
+                body = objectMapper.writeValueAsBytes(document);
+            }
+
+            String etag = "W/\"" + sha256(body) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (link != null) exchange.getResponseHeaders().set("Link", link);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                // Conditional hits are free on GitHub, but still report the quota
+                rateLimitHeaders(exchange, false);
+                send(exchange, 304, null, null);
+                return;
+            }
+            if (!rateLimitHeaders(exchange, true)) {
+                send(exchange, 403, json(Map.of("message", "API rate limit exceeded (simulated)")), null);
+                return;
+            }
+            send(exchange, 200, body, "application/json; charset=utf-8");
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            send(exchange, 500, json(Map.of("message", String.valueOf(e.getMessage()))), null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Sets the X-RateLimit-* headers, spending one call if {@code consume}.
+     *
+     * @return false if the call was refused because the window's quota is spent
+     */
+    private synchronized boolean rateLimitHeaders(HttpExchange exchange, boolean consume) {
+        long now = Instant.now().getEpochSecond();
+        if (now >= windowReset) {
+            windowReset = now + resetSeconds;
+            used = 0;
+        }
+        boolean allowed = !consume || used < rateLimit;
+        if (consume && allowed) used++;
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(rateLimit - used));
+        exchange.getResponseHeaders().set("X-RateLimit-Used", String.valueOf(used));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(windowReset));
+        exchange.getResponseHeaders().set("X-RateLimit-Resource", "core");
+        return allowed;
+    }
+
+    private JsonNode document(String path) {
+        JsonNode cached = documents.get(path);
+        if (cached != null) return cached;
+        JsonNode document = recorded(path);
+        if (document == null) document = generated(path);
+        if (document != null) documents.put(path, document);
+        return document;
+    }
+
+    private JsonNode recorded(String path) {
+        if (recordings == null) return null;
+        Path file = recordings.resolve(path.substring(1) + ".json").normalize();
+        if (!file.startsWith(recordings) || !Files.isRegularFile(file)) return null;
+        try {
+            return objectMapper.readTree(file.toFile());
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid recording " + file, e);
+        }
+    }
+
+    private JsonNode generated(String path) {
+        String[] segments = path.split("/");
+        if (segments.length < 3) return null;
+        String owner = segments[2];
+        long ownerSeed = seed ^ owner.hashCode();
+        if (segments[1].equals("users") && segments.length == 3) return objectMapper.valueToTree(profile(owner, ownerSeed));
+        if (segments[1].equals("users") && segments.length == 4 && segments[3].equals("events")) {
+            return objectMapper.valueToTree(SyntheticGitHubEvents.events(eventsPerUser, ownerSeed));
+        }
+        if (segments[1].equals("users") && segments.length == 4 && segments[3].equals("repos")) {
+            List<Map<String, Object>> repos = new ArrayList<>(reposPerUser);
+            for (int i = 0; i < reposPerUser; i++) repos.add(repo(owner, "project-" + i, ownerSeed + i));
+            return objectMapper.valueToTree(repos);
+        }
+        if (segments[1].equals("orgs") && segments.length == 4 && segments[3].equals("members")) {
+            List<Map<String, Object>> members = new ArrayList<>(membersPerOrg);
+            for (int i = 0; i < membersPerOrg; i++) members.add(Map.of("login", owner + "-member-" + i, "id", i + 1, "type", "User"));
+            return objectMapper.valueToTree(members);
+        }
+        if (segments[1].equals("repos") && segments.length == 4) return objectMapper.valueToTree(repo(owner, segments[3], ownerSeed));
+        return null;
+    }
+
+    private static Map<String, Object> profile(String login, long seed) {
+        long id = Math.floorMod(seed, 100_000_000L);
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("login", login);
+        profile.put("id", id);
+        profile.put("name", login);
+        profile.put("bio", "Simulated user");
+        profile.put("avatar_url", "https://avatars.githubusercontent.com/u/" + id + "?");
+        profile.put("html_url", "https://github.com/" + login);
+        profile.put("public_repos", 30);
+        profile.put("followers", (int) Math.floorMod(seed, 500L));
+        profile.put("following", (int) Math.floorMod(seed >>> 16, 100L));
+        profile.put("created_at", Instant.ofEpochSecond(SyntheticGitHubEvents.BASE_EPOCH_SECOND - 5L * 365 * 86400).toString());
+        return profile;
+    }
+
+    private static Map<String, Object> repo(String owner, String name, long seed) {
+        Map<String, Object> repo = new HashMap<>();
+        repo.put("id", Math.floorMod(seed, 1_000_000_000L));
+        repo.put("name", name);
+        repo.put("full_name", owner + "/" + name);
+        repo.put("private", false);
+        repo.put("fork", false);
+        repo.put("language", Math.floorMod(seed, 2L) == 0 ? "Java" : "TypeScript");
+        repo.put("stargazers_count", (int) Math.floorMod(seed, 200L));
+        repo.put("forks_count", (int) Math.floorMod(seed, 20L));
+        repo.put("pushed_at", Instant.ofEpochSecond(SyntheticGitHubEvents.BASE_EPOCH_SECOND).toString());
+        return repo;
+    }
+
+    private static String link(HttpExchange exchange, String path, int perPage, int page, int lastPage) {
+        if (lastPage <= 1) return null;
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        String base = "http://" + (host != null ? host : "localhost") + path + "?per_page=" + perPage + "&page=";
+        List<String> rels = new ArrayList<>();
+        if (page > 1) rels.add("<" + base + (page - 1) + ">; rel=\"prev\"");
+        if (page < lastPage) rels.add("<" + base + (page + 1) + ">; rel=\"next\"");
+        rels.add("<" + base + "1>; rel=\"first\"");
+        rels.add("<" + base + lastPage + ">; rel=\"last\"");
+        return String.join(", ", rels);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) params.put(pair.substring(0, equals), pair.substring(equals + 1));
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        try {
+            return query.containsKey(name) ? Integer.parseInt(query.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body, String contentType) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType != null ? contentType : "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
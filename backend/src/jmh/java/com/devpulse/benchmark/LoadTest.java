@@ -0,0 +1,229 @@
+package com.devpulse.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Repeatable load-test scenario for the analysis endpoints, meant to run against a
+ * backend whose github.api.base-url points at {@link GitHubSimulator}.
+ *
+ * <p>Requests are sent open-loop at a fixed rate, alternating between the configured
+ * endpoints, for users drawn from a fixed pool with a fixed seed, so two runs send the
+ * same sequence. Latency is measured from each request's scheduled start, so a backend
+ * that falls behind shows up in the percentiles instead of lowering the offered rate.
+ * Requests sent during the warm-up are not recorded.
+ *
+ * <p>Options, all {@code --name=value}: target (http://localhost:8083/api), endpoints
+ * (analyze,report), rps (20), duration-s (60), warmup-s (10), users (100), user-prefix
+ * (loaduser), seed (42), gzip (true), conditional (false: send the last ETag seen for the
+ * user as If-None-Match), max-in-flight (2000), timeout-s (30), out (a JSON summary file,
+ * for comparing releases).
+ */
+public final class LoadTest {
+
+    private final URI target;
+    private final List<String> endpoints;
+    private final int rps;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final List<String> users;
+    private final long seed;
+    private final boolean gzip;
+    private final boolean conditional;
+    private final int maxInFlight;
+    private final Duration timeout;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .executor(Executors.newFixedThreadPool(16))
+        .build();
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private LoadTest(Map<String, String> options) {
+        String base = options.getOrDefault("target", "http://localhost:8083/api");
+        this.target = URI.create(base.endsWith("/") ? base : base + "/");
+        this.endpoints = List.of(options.getOrDefault("endpoints", "analyze,report").split(","));
+        this.rps = Integer.parseInt(options.getOrDefault("rps", "20"));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration-s", "60")));
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup-s", "10")));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.gzip = Boolean.parseBoolean(options.getOrDefault("gzip", "true"));
+        this.conditional = Boolean.parseBoolean(options.getOrDefault("conditional", "false"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-s", "30")));
+
+        int userCount = Integer.parseInt(options.getOrDefault("users", "100"));
+        String prefix = options.getOrDefault("user-prefix", "loaduser");
+        List<String> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) users.add(prefix + i);
+        this.users = users;
+
+        int expected = (int) Math.min(Integer.MAX_VALUE - 8, (long) rps * TimeUnit.NANOSECONDS.toSeconds(durationNanos) + 16);
+        for (String endpoint : endpoints) stats.put(endpoint, new Stats(expected / endpoints.size() + 16));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = GitHubSimulator.parseOptions(args);
+        LoadTest test = new LoadTest(options);
+        Map<String, Object> summary = test.run();
+        test.print(summary);
+        if (options.containsKey("out")) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(Path.of(options.get("out")).toFile(), summary);
+        }
+        System.exit(0);
+    }
+
+    private Map<String, Object> run() throws InterruptedException {
+        Random random = new Random(seed);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rps);
+        long total = (warmupNanos + durationNanos) / intervalNanos;
+        CountDownLatch done = new CountDownLatch((int) total);
+        long start = System.nanoTime();
+        int dropped = 0;
+
+        System.out.printf("Sending %d req/s to %s for %ds (+%ds warm-up), %d users%n", rps, target,
+            TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos), users.size());
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            String endpoint = endpoints.get((int) (i % endpoints.size()));
+            String user = users.get(random.nextInt(users.size()));
+            boolean measured = scheduled - start >= warmupNanos;
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) dropped++;
+                done.countDown();
+                continue;
+            }
+            send(endpoint, user, scheduled, measured, done);
+        }
+        long sentNanos = System.nanoTime() - start - warmupNanos;
+        if (!done.await(timeout.toSeconds() + 5, TimeUnit.SECONDS)) {
+            System.out.println("Some requests did not complete before the timeout");
+        }
+        return summary(Math.max(sentNanos, durationNanos), dropped);
+    }
+
+    private void send(String endpoint, String user, long scheduled, boolean measured, CountDownLatch done) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(target.resolve(endpoint + "/" + user))
+            .timeout(timeout)
+            .GET();
+        if (gzip) request.header("Accept-Encoding", "gzip");
+        String etagKey = endpoint + "/" + user;
+        String etag = etags.get(etagKey);
+        if (conditional && etag != null) request.header("If-None-Match", etag);
+
+        inFlight.incrementAndGet();
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+            .whenComplete((response, error) -> {
+                long latency = System.nanoTime() - scheduled;
+                inFlight.decrementAndGet();
+                if (response != null) response.headers().firstValue("ETag").ifPresent(tag -> etags.put(etagKey, tag));
+                if (measured) {
+                    String status = response != null ? String.valueOf(response.statusCode()) : error.getClass().getSimpleName();
+                    long bytes = response != null && response.body() != null ? response.body().length : 0;
+                    stats.get(endpoint).record(latency, status, bytes);
+                }
+                done.countDown();
+            });
+    }
+
+    private Map<String, Object> summary(long elapsedNanos, int dropped) {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("target", target.toString());
+        summary.put("offeredRps", rps);
+        summary.put("durationSeconds", TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+        summary.put("users", users.size());
+        summary.put("seed", seed);
+        summary.put("gzip", gzip);
+        summary.put("conditional", conditional);
+        summary.put("dropped", dropped);
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        stats.forEach((endpoint, s) -> byEndpoint.put(endpoint, s.summary(seconds)));
+        summary.put("endpoints", byEndpoint);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void print(Map<String, Object> summary) {
+        System.out.printf("%-10s %8s %8s %9s %9s %9s %9s %9s  %s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "status");
+        ((Map<String, Map<String, Object>>) summary.get("endpoints")).forEach((endpoint, s) ->
+            System.out.printf("%-10s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", endpoint,
+                s.get("requests"), s.get("errors"), s.get("throughput"),
+                s.get("p50Ms"), s.get("p90Ms"), s.get("p99Ms"), s.get("maxMs"), s.get("statuses")));
+        if ((int) summary.get("dropped") > 0) {
+            System.out.printf("%d requests not sent: more than max-in-flight outstanding%n", summary.get("dropped"));
+        }
+    }
+
+    /**
+     * Every latency of one endpoint, kept exactly and sorted once at the end.
+     */
+    private static final class Stats {
+        private long[] latencies;
+        private int count;
+        private int errors;
+        private long bytes;
+        private final Map<String, Integer> statuses = new TreeMap<>();
+
+        Stats(int expected) {
+            this.latencies = new long[Math.max(16, expected)];
+        }
+
+        synchronized void record(long latencyNanos, String status, long bodyBytes) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = latencyNanos;
+            statuses.merge(status, 1, Integer::sum);
+            if (!status.equals("200") && !status.equals("304")) errors++;
+            bytes += bodyBytes;
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("errors", errors);
+            summary.put("throughput", count / seconds);
+            summary.put("p50Ms", percentileMillis(sorted, 0.50));
+            summary.put("p90Ms", percentileMillis(sorted, 0.90));
+            summary.put("p99Ms", percentileMillis(sorted, 0.99));
+            summary.put("maxMs", count > 0 ? sorted[count - 1] / 1e6 : 0.0);
+            summary.put("bytesPerResponse", count > 0 ? bytes / count : 0);
+            summary.put("statuses", new TreeMap<>(statuses));
+            return summary;
+        }
+
+        /**
+         * Nearest-rank percentile.
+         */
+        private static double percentileMillis(long[] sorted, double fraction) {
+            if (sorted.length == 0) return 0.0;
+            int rank = (int) Math.ceil(fraction * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+}
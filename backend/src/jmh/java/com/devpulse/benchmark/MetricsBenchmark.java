@@ -0,0 +1,112 @@
+package com.devpulse.benchmark;
+
+import com.devpulse.analysis.ActivityAccumulator;
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.analysis.EventBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each analysis metric derived from an already accumulated snapshot, i.e. the cost of
+ * the former calculate* methods once the events have been folded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"30", "300", "3000", "100000"})
+    public int events;
+
+    private ActivitySnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        EventBatch batch = EventBatch.fromEvents(SyntheticGitHubEvents.events(events, 42));
+        snapshot = new ActivityAccumulator().addAll(batch).snapshot();
+    }
+
+    @Benchmark
+    public double averageCommitsPerDay() {
+        return snapshot.getAverageCommitsPerDay();
+    }
+
+    @Benchmark
+    public int lateNightCommits() {
+        return snapshot.getLateNightCommits();
+    }
+
+    @Benchmark
+    public double weekendCommitRatio() {
+        return snapshot.getWeekendCommitRatio();
+    }
+
+    @Benchmark
+    public int consecutiveDays() {
+        return snapshot.getConsecutiveDays();
+    }
+
+    @Benchmark
+    public int idleDays() {
+        return snapshot.getIdleDays();
+    }
+
+    @Benchmark
+    public String trend() {
+        return snapshot.getTrend();
+    }
+
+    @Benchmark
+    public int recommendationScore() {
+        return snapshot.getRecommendationScore();
+    }
+
+    @Benchmark
+    public String advice() {
+        return snapshot.getAdvice();
+    }
+
+    @Benchmark
+    public Map<String, Object> commitFrequency() {
+        return snapshot.getCommitFrequency();
+    }
+
+    @Benchmark
+    public double workLifeBalance() {
+        return snapshot.getWorkLifeBalance();
+    }
+
+    @Benchmark
+    public double productivityScore() {
+        return snapshot.getProductivityScore();
+    }
+
+    @Benchmark
+    public Map<String, Object> commitPatterns() {
+        return snapshot.getCommitPatterns();
+    }
+
+    @Benchmark
+    public Map<String, Integer> activityHours() {
+        return snapshot.getActivityHours();
+    }
+
+    @Benchmark
+    public double projectDiversity() {
+        return snapshot.getProjectDiversity();
+    }
+}
@@ -0,0 +1,174 @@
+package com.devpulse.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from launching the backend JVM to its first successful GET /api/analyze/{user},
+ * served by an in-process {@link GitHubSimulator}, so startup, first-request class
+ * loading and the lazily created GitHub client are all included.
+ *
+ * <p>Variants: {@code jar} runs the regular executable jar ({@code mvn package});
+ * {@code fast} runs the AOT-processed application with its CDS archive
+ * ({@code mvn -Pfast-startup package}). Each variant is launched {@code runs} times and
+ * the minimum, median and maximum are reported, plus the median speedup over the first
+ * variant.
+ *
+ * <p>Options, all {@code --name=value}: variants (jar,fast), runs (5), jar
+ * (target/devpulse-backend-0.0.1-SNAPSHOT.jar), fast-dir (target/fast-startup), port
+ * (8181), simulator-port (8091), user (octodev), timeout-s (120), out (a JSON summary file).
+ * Backend logs go to target/startup-{variant}-{run}.log.
+ */
+public final class StartupBenchmark {
+
+    private static final long POLL_MILLIS = 10;
+
+    private final Map<String, String> options;
+    private final int port;
+    private final int simulatorPort;
+    private final String user;
+    private final long timeoutNanos;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.options = options;
+        this.port = Integer.parseInt(options.getOrDefault("port", "8181"));
+        this.simulatorPort = Integer.parseInt(options.getOrDefault("simulator-port", "8091"));
+        this.user = options.getOrDefault("user", "octodev");
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("timeout-s", "120")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = GitHubSimulator.parseOptions(args);
+        Map<String, String> simulatorOptions = new LinkedHashMap<>();
+        simulatorOptions.put("port", options.getOrDefault("simulator-port", "8091"));
+        simulatorOptions.put("latency-ms", "0");
+        simulatorOptions.put("jitter-ms", "0");
+        HttpServer simulator = GitHubSimulator.start(simulatorOptions);
+        try {
+            StartupBenchmark benchmark = new StartupBenchmark(options);
+            Map<String, Object> summary = benchmark.run();
+            if (options.containsKey("out")) {
+                new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(Path.of(options.get("out")).toFile(), summary);
+            }
+        } finally {
+            simulator.stop(0);
+        }
+    }
+
+    private Map<String, Object> run() throws IOException, InterruptedException {
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Map<String, Object> summary = new LinkedHashMap<>();
+        Double baseline = null;
+        System.out.printf("%-8s %9s %9s %9s  %s%n", "variant", "min ms", "median ms", "max ms", "speedup");
+        for (String variant : options.getOrDefault("variants", "jar,fast").split(",")) {
+            List<String> command = command(variant);
+            File directory = workingDirectory(variant);
+            double[] millis = new double[runs];
+            for (int run = 0; run < runs; run++) {
+                Path log = Path.of("target", "startup-" + variant + "-" + run + ".log").toAbsolutePath();
+                millis[run] = timeToFirstAnalysis(command, directory, log);
+            }
+            Arrays.sort(millis);
+            double median = millis[runs / 2];
+            if (baseline == null) baseline = median;
+            System.out.printf("%-8s %9.0f %9.0f %9.0f  %.1fx%n", variant, millis[0], median, millis[runs - 1], baseline / median);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("command", String.join(" ", command));
+            result.put("runsMs", millis);
+            result.put("minMs", millis[0]);
+            result.put("medianMs", median);
+            result.put("maxMs", millis[runs - 1]);
+            summary.put(variant, result);
+        }
+        return summary;
+    }
+
+    private double timeToFirstAnalysis(List<String> command, File directory, Path log) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/analyze/" + user))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+        long start = System.nanoTime();
+        Process backend = new ProcessBuilder(command).directory(directory).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            while (System.nanoTime() - start < timeoutNanos) {
+                if (!backend.isAlive()) throw new IllegalStateException("Backend exited with " + backend.exitValue() + ", see " + log);
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) return (System.nanoTime() - start) / 1e6;
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+            throw new IllegalStateException("No successful analysis within the timeout, see " + log);
+        } finally {
+            backend.destroy();
+            if (!backend.waitFor(30, TimeUnit.SECONDS)) backend.destroyForcibly().waitFor();
+        }
+    }
+
+    private List<String> command(String variant) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        switch (variant) {
+            case "jar" -> {
+                command.add("-jar");
+                command.add(existing(Path.of(options.getOrDefault("jar", "target/devpulse-backend-0.0.1-SNAPSHOT.jar"))));
+            }
+            case "fast" -> {
+                // Same relative paths as the training run, or the JVM rejects the archive
+                Path dir = Path.of(options.getOrDefault("fast-dir", "target/fast-startup"));
+                existing(dir.resolve("application.jsa"));
+                command.add("-XX:SharedArchiveFile=application.jsa");
+                command.add("-Dspring.aot.enabled=true");
+                command.add("-jar");
+                command.add(appJar(dir));
+            }
+            default -> throw new IllegalArgumentException("Unknown variant: " + variant);
+        }
+        command.add("--server.port=" + port);
+        command.add("--github.api.base-url=http://localhost:" + simulatorPort);
+        command.add("--github.token=startup-benchmark");
+        command.add("--github.username=" + user);
+        return command;
+    }
+
+    private File workingDirectory(String variant) {
+        return variant.equals("fast") ? new File(options.getOrDefault("fast-dir", "target/fast-startup")) : null;
+    }
+
+    private static String appJar(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(existing(dir)))) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-app.jar"))
+                .findFirst()
+                .map(file -> file.getFileName().toString())
+                .orElseThrow(() -> new IllegalStateException("No *-app.jar in " + dir + "; run mvn -Pfast-startup package"));
+        }
+    }
+
+    private static String existing(Path path) {
+        File file = path.toFile();
+        if (!file.exists()) throw new IllegalStateException(path + " not found; build it first (see the class comment)");
+        return file.getPath();
+    }
+}
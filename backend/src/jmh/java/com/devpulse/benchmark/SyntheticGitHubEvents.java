@@ -0,0 +1,132 @@
+package com.devpulse.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic generator of GitHub /users/{u}/events payloads for offline benchmarks.
+ * The type mix, repo spread and PushEvent payloads follow what the real API returns for
+ * an active developer; the same seed always yields the same events.
+ */
+public final class SyntheticGitHubEvents {
+
+    /**
+     * Fixed reference time (2024-06-01T00:00:00Z) so runs are reproducible.
+     */
+    public static final long BASE_EPOCH_SECOND = 1717200000L;
+
+    private static final String LOGIN = "octodev";
+    private static final int REPO_COUNT = 20;
+    private static final String[] MESSAGES = {
+        "fix: handle empty response",
+        "feat: add pagination support",
+        "refactor: extract service layer",
+        "hotfix again",
+        "chore: bump dependencies",
+        "wip",
+        "test: cover edge cases",
+        "docs: update README"
+    };
+
+    private SyntheticGitHubEvents() {
+    }
+
+    public static List<Map<String, Object>> events(int count, long seed) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> events = new ArrayList<>(count);
+        long createdAt = BASE_EPOCH_SECOND;
+        for (int i = 0; i < count; i++) {
+            // Newest first, like the API, with gaps from minutes to a couple of days
+            createdAt -= 60 + random.nextInt(i % 10 == 0 ? 2 * 86400 : 6 * 3600);
+            events.add(event(random, 40_000_000_000L - i, createdAt));
+        }
+        return events;
+    }
+
+    public static byte[] eventsJson(int count, long seed) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(events(count, seed));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, Object> event(Random random, long id, long createdAt) {
+        int roll = random.nextInt(100);
+        String type = roll < 60 ? "PushEvent"
+            : roll < 70 ? "CreateEvent"
+            : roll < 75 ? "CommitCommentEvent"
+            : roll < 85 ? "PullRequestEvent"
+            : roll < 95 ? "IssueCommentEvent"
+            : "WatchEvent";
+        int repoId = random.nextInt(REPO_COUNT);
+        String repoName = LOGIN + "/project-" + repoId;
+
+        Map<String, Object> actor = new HashMap<>();
+        actor.put("id", 583231);
+        actor.put("login", LOGIN);
+        actor.put("display_login", LOGIN);
+        actor.put("gravatar_id", "");
+        actor.put("url", "https://api.github.com/users/" + LOGIN);
+        actor.put("avatar_url", "https://avatars.githubusercontent.com/u/583231?");
+
+        Map<String, Object> repo = new HashMap<>();
+        repo.put("id", 100000 + repoId);
+        repo.put("name", repoName);
+        repo.put("url", "https://api.github.com/repos/" + repoName);
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("id", String.valueOf(id));
+        event.put("type", type);
+        event.put("actor", actor);
+        event.put("repo", repo);
+        event.put("payload", "PushEvent".equals(type) ? pushPayload(random, repoName) : Map.of("action", "created"));
+        event.put("public", true);
+        event.put("created_at", Instant.ofEpochSecond(createdAt).toString());
+        return event;
+    }
+
+    private static Map<String, Object> pushPayload(Random random, String repoName) {
+        int size = 1 + random.nextInt(5);
+        List<Map<String, Object>> commits = new ArrayList<>(size);
+        for (int c = 0; c < size; c++) {
+            String sha = sha(random);
+            Map<String, Object> author = new HashMap<>();
+            author.put("email", LOGIN + "@users.noreply.github.com");
+            author.put("name", "Octo Dev");
+
+            Map<String, Object> commit = new HashMap<>();
+            commit.put("sha", sha);
+            commit.put("author", author);
+            commit.put("message", MESSAGES[random.nextInt(MESSAGES.length)]);
+            commit.put("distinct", true);
+            commit.put("url", "https://api.github.com/repos/" + repoName + "/commits/" + sha);
+            commits.add(commit);
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("repository_id", 1);
+        payload.put("push_id", random.nextInt(Integer.MAX_VALUE));
+        payload.put("size", size);
+        payload.put("distinct_size", size);
+        payload.put("ref", "refs/heads/main");
+        payload.put("head", sha(random));
+        payload.put("before", sha(random));
+        payload.put("commits", commits);
+        return payload;
+    }
+
+    private static String sha(Random random) {
+        StringBuilder sha = new StringBuilder(40);
+        for (int i = 0; i < 40; i++) {
+            sha.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sha.toString();
+    }
+}
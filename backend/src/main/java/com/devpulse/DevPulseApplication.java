@@ -5,7 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
 
 @SpringBootApplication
-@ComponentScan(basePackages = {"com.devpulse.controller", "com.devpulse.service", "com.devpulse.config"})
+@ComponentScan(basePackages = {"com.devpulse.controller", "com.devpulse.service", "com.devpulse.config", "com.devpulse.repository"})
 public class DevPulseApplication {
     public static void main(String[] args) {
         SpringApplication.run(DevPulseApplication.class, args);
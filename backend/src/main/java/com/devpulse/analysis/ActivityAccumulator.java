@@ -0,0 +1,149 @@
+package com.devpulse.analysis;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Folds GitHub events into every counter the analysis metrics need, so each
+ * {@link EventBatch} is scanned exactly once. Several batches (e.g. pages) may be
+ * added before taking the snapshot.
+ */
+public class ActivityAccumulator {
+
+    private static final int TREND_WINDOW_DAYS = 30;
+
+    private final long nowEpochSecond;
+    private final UtcOffsetTable zone;
+    private final long recentThreshold;
+
+    private int eventCount;
+    private int commitEvents;
+    private int pushEvents;
+    private final int[] commitHours = new int[24];
+    private final int[] commitDaysOfWeek = new int[7];
+    private final int[] pushHours = new int[24];
+    private final int[] pushDaysOfWeek = new int[7];
+    private int recentCommitEvents;
+    private int[] commitEpochDays = new int[32];
+    private int commitEpochDayCount;
+    private long lastPushEpochSecond = Long.MIN_VALUE;
+    private final Set<String> pushRepos = new HashSet<>();
+    private final Map<String, Integer> keywordCounts = new HashMap<>();
+
+    public ActivityAccumulator() {
+        this(Instant.now().getEpochSecond());
+    }
+
+    /**
+     * @param nowEpochSecond reference "now" used for idle days and the 30-day trend window
+     */
+    public ActivityAccumulator(long nowEpochSecond) {
+        this(nowEpochSecond, UtcOffsetTable.UTC);
+    }
+
+    /**
+     * @param zone the developer's time zone, used for hour, weekday and streak buckets
+     */
+    public ActivityAccumulator(long nowEpochSecond, UtcOffsetTable zone) {
+        this.nowEpochSecond = nowEpochSecond;
+        this.zone = zone;
+        this.recentThreshold = nowEpochSecond - TREND_WINDOW_DAYS * Timestamps.SECONDS_PER_DAY;
+    }
+
+    public ActivityAccumulator addAll(EventBatch batch) {
+        BitSet pushedRepos = new BitSet(batch.getRepoCount());
+        int[] keywords = new int[batch.getKeywordCount()];
+        for (int i = 0; i < batch.size(); i++) {
+            for (int k = batch.getKeywordStart(i); k < batch.getKeywordEnd(i); k++) {
+                keywords[batch.getKeywordIndex(k)]++;
+            }
+            EventType type = batch.getType(i);
+            if (type == EventType.PUSH && batch.getRepoIndex(i) != EventBatch.NO_REPO) {
+                pushedRepos.set(batch.getRepoIndex(i));
+            }
+            add(type, batch.getCreatedAt(i));
+        }
+        for (int r = pushedRepos.nextSetBit(0); r >= 0; r = pushedRepos.nextSetBit(r + 1)) {
+            pushRepos.add(batch.getRepoName(r));
+        }
+        for (int k = 0; k < keywords.length; k++) {
+            if (keywords[k] > 0) keywordCounts.merge(batch.getKeyword(k), keywords[k], Integer::sum);
+        }
+        return this;
+    }
+
+    private void add(EventType type, int createdAt) {
+        eventCount++;
+        if (!type.isCommit()) return;
+
+        boolean push = type == EventType.PUSH;
+        commitEvents++;
+        if (push) pushEvents++;
+        if (createdAt == EventBatch.NO_TIMESTAMP) return;
+
+        // Hours and days are bucketed in the developer's local time
+        long local = zone.toLocal(createdAt);
+        int epochDay = Timestamps.epochDay(local);
+        int hour = Timestamps.hourOfDay(local);
+        int dayOfWeek = Timestamps.dayOfWeek(epochDay);
+
+        commitHours[hour]++;
+        commitDaysOfWeek[dayOfWeek]++;
+        if (createdAt > recentThreshold) recentCommitEvents++;
+        if (commitEpochDayCount == commitEpochDays.length) {
+            commitEpochDays = Arrays.copyOf(commitEpochDays, commitEpochDayCount * 2);
+        }
+        commitEpochDays[commitEpochDayCount++] = epochDay;
+
+        if (push) {
+            pushHours[hour]++;
+            pushDaysOfWeek[dayOfWeek]++;
+            lastPushEpochSecond = Math.max(lastPushEpochSecond, createdAt);
+        }
+    }
+
+    public ActivitySnapshot snapshot() {
+        return new ActivitySnapshot(
+            nowEpochSecond,
+            eventCount,
+            commitEvents,
+            pushEvents,
+            commitHours.clone(),
+            commitDaysOfWeek.clone(),
+            pushHours.clone(),
+            pushDaysOfWeek.clone(),
+            recentCommitEvents,
+            longestStreak(),
+            lastPushEpochSecond == Long.MIN_VALUE ? nowEpochSecond : lastPushEpochSecond,
+            pushRepos.size(),
+            new HashMap<>(keywordCounts)
+        );
+    }
+
+    /**
+     * Longest run of commit events on consecutive calendar days, walked in time order.
+     * Like the original sorted scan, a second event on the same day restarts the run.
+     */
+    private int longestStreak() {
+        if (commitEpochDayCount == 0) return 0;
+        int[] days = Arrays.copyOf(commitEpochDays, commitEpochDayCount);
+        Arrays.sort(days);
+
+        int max = 1;
+        int current = 1;
+        for (int i = 1; i < days.length; i++) {
+            if (days[i - 1] + 1 == days[i]) {
+                current++;
+                max = Math.max(max, current);
+            } else {
+                current = 1;
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,124 @@
+package com.devpulse.analysis;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Per-user commit activity pre-aggregated into day, week and month counters, updated as
+ * events are ingested. Any window is then read in O(buckets) without rescanning events.
+ * Buckets follow the calendar of the user's time zone, fixed when the rollup is built;
+ * a rollup for another zone has to be rebuilt from the events.
+ *
+ * <p>Ingestion is idempotent: only events with an id above the newest one already
+ * ingested are counted, so the same batch may be offered more than once. Events therefore
+ * need ids, which is why github.events.fields must include "id".
+ */
+public class ActivityRollup {
+
+    private final UtcOffsetTable zone;
+    private final Series days = new Series();
+    private final Series weeks = new Series();
+    private final Series months = new Series();
+    private long latestId = EventBatch.NO_ID;
+
+    public ActivityRollup() {
+        this(UtcOffsetTable.UTC);
+    }
+
+    public ActivityRollup(UtcOffsetTable zone) {
+        this.zone = zone;
+    }
+
+    public UtcOffsetTable getZone() {
+        return zone;
+    }
+
+    public synchronized ActivityRollup ingest(EventBatch batch) {
+        long newestId = latestId;
+        for (int i = 0; i < batch.size(); i++) {
+            long id = batch.getId(i);
+            if (id <= latestId) continue;
+            newestId = Math.max(newestId, id);
+            int createdAt = batch.getCreatedAt(i);
+            if (createdAt == EventBatch.NO_TIMESTAMP || !batch.getType(i).isCommit()) continue;
+
+            int epochDay = localDay(createdAt);
+            days.increment(epochDay);
+            weeks.increment(week(epochDay));
+            months.increment(month(epochDay));
+        }
+        latestId = newestId;
+        return this;
+    }
+
+    /**
+     * Commit events per day for the {@code count} days ending with the current one, oldest first.
+     */
+    public synchronized int[] getDaily(long nowEpochSecond, int count) {
+        return days.window(localDay(nowEpochSecond), count);
+    }
+
+    /**
+     * Commit events per week (Monday to Sunday) for the {@code count} weeks ending with the current one, oldest first.
+     */
+    public synchronized int[] getWeekly(long nowEpochSecond, int count) {
+        return weeks.window(week(localDay(nowEpochSecond)), count);
+    }
+
+    /**
+     * Commit events per calendar month for the {@code count} months ending with the current one, oldest first.
+     */
+    public synchronized int[] getMonthly(long nowEpochSecond, int count) {
+        return months.window(month(localDay(nowEpochSecond)), count);
+    }
+
+    private int localDay(long epochSecond) {
+        return Timestamps.epochDay(zone.toLocal(epochSecond));
+    }
+
+    /**
+     * 1970-01-01 was a Thursday; shifting by 3 days makes weeks start on Monday.
+     */
+    private static int week(int epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    private static int month(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * Counters for consecutive buckets starting at {@code origin}, grown in either direction.
+     */
+    private static final class Series {
+        private int origin;
+        private int[] counts = new int[0];
+
+        void increment(int bucket) {
+            if (counts.length == 0) {
+                origin = bucket;
+                counts = new int[16];
+            } else if (bucket < origin) {
+                int shift = Math.max(origin - bucket, counts.length / 2);
+                int[] grown = new int[counts.length + shift];
+                System.arraycopy(counts, 0, grown, shift, counts.length);
+                counts = grown;
+                origin -= shift;
+            } else if (bucket - origin >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(bucket - origin + 1, counts.length * 2));
+            }
+            counts[bucket - origin]++;
+        }
+
+        int[] window(int lastBucket, int count) {
+            int[] window = new int[count];
+            int first = lastBucket - count + 1;
+            for (int i = 0; i < count; i++) {
+                int index = first + i - origin;
+                if (index >= 0 && index < counts.length) window[i] = counts[index];
+            }
+            return window;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.devpulse.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable result of a single {@link ActivityAccumulator} pass. Every metric exposed by
+ * the analysis endpoints is derived from these counters without touching the raw events.
+ *
+ * <p>Snapshots of different developers {@link #merge merge} into a team snapshot whose
+ * metrics describe the team as a whole.
+ */
+public class ActivitySnapshot {
+
+    /**
+     * Days of activity the per-day and per-week metrics assume; callers analyze only
+     * events created in the last WINDOW_DAYS days.
+     */
+    public static final int WINDOW_DAYS = 30;
+
+    private static final String[] HOUR_LABELS = new String[24];
+    private static final int SATURDAY = 5;
+    private static final int SUNDAY = 6;
+
+    static {
+        for (int i = 0; i < 24; i++) {
+            HOUR_LABELS[i] = String.format("%02d:00", i);
+        }
+    }
+
+    private final long nowEpochSecond;
+    private final int eventCount;
+    private final int commitEvents;
+    private final int pushEvents;
+    private final int[] commitHours;
+    private final int[] commitDaysOfWeek;
+    private final int[] pushHours;
+    private final int[] pushDaysOfWeek;
+    private final int recentCommitEvents;
+    private final int longestStreak;
+    private final long lastPushEpochSecond;
+    private final int pushRepoCount;
+    private final Map<String, Integer> keywordCounts;
+
+    ActivitySnapshot(long nowEpochSecond, int eventCount, int commitEvents, int pushEvents,
+                     int[] commitHours, int[] commitDaysOfWeek, int[] pushHours, int[] pushDaysOfWeek,
+                     int recentCommitEvents, int longestStreak, long lastPushEpochSecond, int pushRepoCount,
+                     Map<String, Integer> keywordCounts) {
+        this.nowEpochSecond = nowEpochSecond;
+        this.eventCount = eventCount;
+        this.commitEvents = commitEvents;
+        this.pushEvents = pushEvents;
+        this.commitHours = commitHours;
+        this.commitDaysOfWeek = commitDaysOfWeek;
+        this.pushHours = pushHours;
+        this.pushDaysOfWeek = pushDaysOfWeek;
+        this.recentCommitEvents = recentCommitEvents;
+        this.longestStreak = longestStreak;
+        this.lastPushEpochSecond = lastPushEpochSecond;
+        this.pushRepoCount = pushRepoCount;
+        this.keywordCounts = keywordCounts;
+    }
+
+    /**
+     * Combines two snapshots without rescanning events: counters and histograms add up,
+     * the streak is the longer one, the last push the later one and repositories are
+     * counted per developer.
+     */
+    public ActivitySnapshot merge(ActivitySnapshot other) {
+        Map<String, Integer> keywords = new HashMap<>(keywordCounts);
+        other.keywordCounts.forEach((keyword, count) -> keywords.merge(keyword, count, Integer::sum));
+        long lastPush;
+        if (pushEvents == 0) lastPush = other.lastPushEpochSecond;
+        else if (other.pushEvents == 0) lastPush = lastPushEpochSecond;
+        else lastPush = Math.max(lastPushEpochSecond, other.lastPushEpochSecond);
+        return new ActivitySnapshot(
+            Math.max(nowEpochSecond, other.nowEpochSecond),
+            eventCount + other.eventCount,
+            commitEvents + other.commitEvents,
+            pushEvents + other.pushEvents,
+            sum(commitHours, other.commitHours),
+            sum(commitDaysOfWeek, other.commitDaysOfWeek),
+            sum(pushHours, other.pushHours),
+            sum(pushDaysOfWeek, other.pushDaysOfWeek),
+            recentCommitEvents + other.recentCommitEvents,
+            Math.max(longestStreak, other.longestStreak),
+            lastPush,
+            pushRepoCount + other.pushRepoCount,
+            keywords
+        );
+    }
+
+    /**
+     * The raw counters, as JSON-friendly values, for another instance to rebuild this
+     * snapshot with {@link #fromCounters} and merge it; the derived metrics alone cannot
+     * be merged.
+     */
+    public Map<String, Object> toCounters() {
+        Map<String, Object> counters = new HashMap<>();
+        counters.put("now", nowEpochSecond);
+        counters.put("events", eventCount);
+        counters.put("commits", commitEvents);
+        counters.put("pushes", pushEvents);
+        counters.put("commitHours", commitHours);
+        counters.put("commitDaysOfWeek", commitDaysOfWeek);
+        counters.put("pushHours", pushHours);
+        counters.put("pushDaysOfWeek", pushDaysOfWeek);
+        counters.put("recentCommits", recentCommitEvents);
+        counters.put("longestStreak", longestStreak);
+        counters.put("lastPush", lastPushEpochSecond);
+        counters.put("pushRepos", pushRepoCount);
+        counters.put("keywords", keywordCounts);
+        return counters;
+    }
+
+    /**
+     * Rebuilds a snapshot from {@link #toCounters}, including after a JSON round trip.
+     */
+    @SuppressWarnings("unchecked")
+    public static ActivitySnapshot fromCounters(Map<String, Object> counters) {
+        Map<String, Integer> keywords = new HashMap<>();
+        ((Map<String, Object>) counters.get("keywords")).forEach((keyword, count) -> keywords.put(keyword, ((Number) count).intValue()));
+        return new ActivitySnapshot(
+            ((Number) counters.get("now")).longValue(),
+            ((Number) counters.get("events")).intValue(),
+            ((Number) counters.get("commits")).intValue(),
+            ((Number) counters.get("pushes")).intValue(),
+            ints(counters.get("commitHours")),
+            ints(counters.get("commitDaysOfWeek")),
+            ints(counters.get("pushHours")),
+            ints(counters.get("pushDaysOfWeek")),
+            ((Number) counters.get("recentCommits")).intValue(),
+            ((Number) counters.get("longestStreak")).intValue(),
+            ((Number) counters.get("lastPush")).longValue(),
+            ((Number) counters.get("pushRepos")).intValue(),
+            keywords
+        );
+    }
+
+    public boolean isEmpty() {
+        return eventCount == 0;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getTotalCommits() {
+        return commitEvents;
+    }
+
+    public int getPushEvents() {
+        return pushEvents;
+    }
+
+    public double getAverageCommitsPerDay() {
+        return commitEvents / (double) WINDOW_DAYS;
+    }
+
+    public int getLateNightCommits() {
+        return sumHours(commitHours, 22, 24) + sumHours(commitHours, 0, 6);
+    }
+
+    public double getLateNightCommitRatio() {
+        if (commitEvents == 0) return 0.0;
+        return (getLateNightCommits() * 100.0) / commitEvents;
+    }
+
+    public double getWeekendCommitRatio() {
+        if (commitEvents == 0) return 0.0;
+        return (weekend(commitDaysOfWeek) * 100.0) / commitEvents;
+    }
+
+    public int getConsecutiveDays() {
+        return longestStreak;
+    }
+
+    public int getIdleDays() {
+        return (int) (nowEpochSecond - lastPushEpochSecond) / (24 * 3600);
+    }
+
+    public String getTrend() {
+        if (isEmpty()) return "indeterminado";
+        if (recentCommitEvents > 20) return "positivo";
+        if (recentCommitEvents > 10) return "estável";
+        return "negativo";
+    }
+
+    public int getRecommendationScore() {
+        if (isEmpty()) return 0;
+
+        int score = 0;
+
+        // Pontuação baseada na média de commits
+        double avgCommits = getAverageCommitsPerDay();
+        if (avgCommits > 3) score += 30;
+        else if (avgCommits > 1) score += 20;
+        else if (avgCommits > 0.5) score += 10;
+
+        // Pontuação baseada em commits noturnos
+        int lateNightCommits = getLateNightCommits();
+        if (lateNightCommits < 5) score += 20;
+        else if (lateNightCommits < 10) score += 10;
+
+        // Pontuação baseada em commits de fim de semana
+        double weekendRatio = getWeekendCommitRatio();
+        if (weekendRatio < 20) score += 20;
+        else if (weekendRatio < 40) score += 10;
+
+        // Pontuação baseada em dias consecutivos
+        int consecutiveDays = getConsecutiveDays();
+        if (consecutiveDays > 7) score += 30;
+        else if (consecutiveDays > 3) score += 20;
+        else if (consecutiveDays > 1) score += 10;
+
+        return score;
+    }
+
+    public String getAdvice() {
+        if (isEmpty())
+            return "Nenhum dado disponível para análise.";
+
+        StringBuilder advice = new StringBuilder();
+
+        if (getAverageCommitsPerDay() < 0.5) {
+            advice.append("Tente aumentar sua frequência de commits. ");
+        }
+        if (getLateNightCommits() > 10) {
+            advice.append("Considere reduzir commits noturnos para melhorar seu bem-estar. ");
+        }
+        if (getWeekendCommitRatio() > 40) {
+            advice.append("Muitos commits nos fins de semana podem indicar sobrecarga. ");
+        }
+        if (getIdleDays() > 7) {
+            advice.append("Considere manter um ritmo mais constante de desenvolvimento. ");
+        }
+
+        return advice.length() > 0 ? advice.toString() : "Continue mantendo um bom ritmo de desenvolvimento!";
+    }
+
+    public Map<String, Object> getCommitFrequency() {
+        Map<String, Object> frequency = new HashMap<>();
+        if (isEmpty()) {
+            frequency.put("daily", 0);
+            frequency.put("weekly", 0);
+            frequency.put("monthly", 0);
+            return frequency;
+        }
+
+        long pushes = pushEvents;
+        frequency.put("daily", pushes / (double) WINDOW_DAYS);
+        frequency.put("weekly", pushes / 4.0);
+        frequency.put("monthly", pushes);
+        return frequency;
+    }
+
+    public double getWorkLifeBalance() {
+        if (pushEvents == 0) return 0.0;
+
+        double weekendRatio = (weekend(pushDaysOfWeek) * 100.0) / pushEvents;
+        double lateNightRatio = ((sumHours(pushHours, 22, 24) + sumHours(pushHours, 0, 6)) * 100.0) / pushEvents;
+
+        // Score calculation: 100 - (weekendRatio + lateNightRatio) / 2
+        return Math.max(0, 100 - (weekendRatio + lateNightRatio) / 2);
+    }
+
+    public double getProductivityScore() {
+        if (isEmpty()) return 0.0;
+
+        // Weighted scoring
+        double commitScore = Math.min(getAverageCommitsPerDay() * 10, 40); // Max 40 points
+        double consistencyScore = Math.min(getConsecutiveDays() * 2, 30); // Max 30 points
+        double balanceScore = getWorkLifeBalance() * 0.3; // Max 30 points
+
+        return commitScore + consistencyScore + balanceScore;
+    }
+
+    public Map<String, Object> getCommitPatterns() {
+        Map<String, Object> patterns = new HashMap<>();
+        if (pushEvents == 0) {
+            patterns.put("morning", 0);
+            patterns.put("afternoon", 0);
+            patterns.put("evening", 0);
+            patterns.put("night", 0);
+            return patterns;
+        }
+
+        patterns.put("morning", (sumHours(pushHours, 6, 12) * 100.0) / pushEvents);
+        patterns.put("afternoon", (sumHours(pushHours, 12, 18) * 100.0) / pushEvents);
+        patterns.put("evening", (sumHours(pushHours, 18, 22) * 100.0) / pushEvents);
+        patterns.put("night", ((sumHours(pushHours, 22, 24) + sumHours(pushHours, 0, 6)) * 100.0) / pushEvents);
+        return patterns;
+    }
+
+    public Map<String, Integer> getActivityHours() {
+        Map<String, Integer> activityHours = new HashMap<>();
+        for (int i = 0; i < 24; i++) {
+            activityHours.put(HOUR_LABELS[i], pushHours[i]);
+        }
+        return activityHours;
+    }
+
+    public double getProjectDiversity() {
+        return pushRepoCount;
+    }
+
+    /**
+     * Occurrences of each suspect keyword, most frequent first (ties alphabetically).
+     */
+    public Map<String, Integer> getSuspectWordCounts() {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(keywordCounts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : entries) counts.put(entry.getKey(), entry.getValue());
+        return counts;
+    }
+
+    private static int[] sum(int[] a, int[] b) {
+        int[] sum = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            sum[i] = a[i] + b[i];
+        }
+        return sum;
+    }
+
+    private static int[] ints(Object value) {
+        if (value instanceof int[] array) return array.clone();
+        List<?> list = (List<?>) value;
+        int[] ints = new int[list.size()];
+        for (int i = 0; i < ints.length; i++) ints[i] = ((Number) list.get(i)).intValue();
+        return ints;
+    }
+
+    private static int sumHours(int[] hours, int from, int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += hours[i];
+        }
+        return sum;
+    }
+
+    private static int weekend(int[] daysOfWeek) {
+        return daysOfWeek[SATURDAY] + daysOfWeek[SUNDAY];
+    }
+}
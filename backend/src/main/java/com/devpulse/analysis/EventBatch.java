@@ -0,0 +1,311 @@
+package com.devpulse.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, read-only batch of GitHub events holding only what the analysis reads:
+ * the event id, created_at as epoch seconds, a one-byte {@link EventType} code and an
+ * index into an interned repository name table. Suspect keywords found in an event's
+ * commit messages are kept sparsely: event {@code i} owns the entries
+ * {@code keywordStarts[i]} to {@code keywordStarts[i + 1]} of an index list into an
+ * interned keyword table, one entry per occurrence.
+ *
+ * <p>A deserialized event map costs several kilobytes (nested actor, repo, org and
+ * payload maps); here an event costs 17 bytes plus its share of the repo table, which
+ * is typically a handful of strings per user.
+ */
+public final class EventBatch {
+
+    public static final long NO_ID = 0;
+    public static final int NO_TIMESTAMP = Integer.MIN_VALUE;
+    public static final int NO_REPO = -1;
+
+    private static final EventBatch EMPTY = new EventBatch(0, new long[0], new int[0], new byte[0], new int[0], new String[0],
+        new int[1], new int[0], new String[0]);
+
+    private final int size;
+    private final long[] ids;
+    private final int[] createdAt;
+    private final byte[] types;
+    private final int[] repoIndexes;
+    private final String[] repoNames;
+    private final int[] keywordStarts;
+    private final int[] keywordIndexes;
+    private final String[] keywords;
+
+    private EventBatch(int size, long[] ids, int[] createdAt, byte[] types, int[] repoIndexes, String[] repoNames,
+                       int[] keywordStarts, int[] keywordIndexes, String[] keywords) {
+        this.size = size;
+        this.ids = ids;
+        this.createdAt = createdAt;
+        this.types = types;
+        this.repoIndexes = repoIndexes;
+        this.repoNames = repoNames;
+        this.keywordStarts = keywordStarts;
+        this.keywordIndexes = keywordIndexes;
+        this.keywords = keywords;
+    }
+
+    public static EventBatch empty() {
+        return EMPTY;
+    }
+
+    public static EventBatch fromEvents(List<Map<String, Object>> events) {
+        return fromEvents(events, null);
+    }
+
+    /**
+     * @param matcher scans each event's {@code payload.commits[].message}; null to skip keywords
+     */
+    public static EventBatch fromEvents(List<Map<String, Object>> events, KeywordMatcher matcher) {
+        if (events == null || events.isEmpty()) return EMPTY;
+        Builder builder = builder(events.size());
+        KeywordMatcher.Hits hits = new KeywordMatcher.Hits();
+        for (Map<String, Object> event : events) {
+            builder.add(parseId(event.get("id")), (String) event.get("type"), (String) event.get("created_at"), repoName(event));
+            if (matcher == null) continue;
+            hits.clear();
+            for (String message : commitMessages(event)) matcher.scan(message, hits);
+            for (int i = 0; i < hits.size(); i++) builder.addKeyword(matcher.getTerm(hits.get(i)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Joins page batches in order, keeping at most {@code maxEvents} events.
+     */
+    public static EventBatch concat(List<EventBatch> batches, int maxEvents) {
+        int total = 0;
+        for (EventBatch batch : batches) total += batch.size;
+        Builder builder = builder(Math.min(total, maxEvents));
+        for (EventBatch batch : batches) {
+            for (int i = 0; i < batch.size && builder.size() < maxEvents; i++) {
+                builder.add(batch, i);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Events of this batch whose id is greater than {@code id}, i.e. newer than it.
+     */
+    public EventBatch newerThan(long id) {
+        Builder builder = builder(size);
+        for (int i = 0; i < size; i++) {
+            if (ids[i] > id) builder.add(this, i);
+        }
+        return builder.size() == size ? this : builder.build();
+    }
+
+    /**
+     * Events of this batch created at or after {@code epochSecond}; events without a
+     * timestamp are dropped.
+     */
+    public EventBatch createdSince(long epochSecond) {
+        Builder builder = builder(size);
+        for (int i = 0; i < size; i++) {
+            if (createdAt[i] != NO_TIMESTAMP && createdAt[i] >= epochSecond) builder.add(this, i);
+        }
+        return builder.size() == size ? this : builder.build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the GitHub event id, or {@link #NO_ID}
+     */
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return created_at in epoch seconds, or {@link #NO_TIMESTAMP} if the event had none
+     */
+    public int getCreatedAt(int index) {
+        return createdAt[index];
+    }
+
+    public byte getTypeCode(int index) {
+        return types[index];
+    }
+
+    public EventType getType(int index) {
+        return EventType.fromCode(types[index]);
+    }
+
+    /**
+     * @return index into {@link #getRepoName(int)}, or {@link #NO_REPO}
+     */
+    public int getRepoIndex(int index) {
+        return repoIndexes[index];
+    }
+
+    public int getRepoCount() {
+        return repoNames.length;
+    }
+
+    public String getRepoName(int repoIndex) {
+        return repoNames[repoIndex];
+    }
+
+    /**
+     * @return the repo name of the event at {@code index}, or null
+     */
+    public String getRepoNameOf(int index) {
+        int repo = repoIndexes[index];
+        return repo == NO_REPO ? null : repoNames[repo];
+    }
+
+    /**
+     * First entry of the event at {@code index} in the keyword occurrence list; the event's
+     * entries end at the next event's start.
+     */
+    public int getKeywordStart(int index) {
+        return keywordStarts[index];
+    }
+
+    public int getKeywordEnd(int index) {
+        return keywordStarts[index + 1];
+    }
+
+    /**
+     * @return index into {@link #getKeyword(int)} of the occurrence at {@code entry}
+     */
+    public int getKeywordIndex(int entry) {
+        return keywordIndexes[entry];
+    }
+
+    public int getKeywordCount() {
+        return keywords.length;
+    }
+
+    public String getKeyword(int keywordIndex) {
+        return keywords[keywordIndex];
+    }
+
+    private static String repoName(Map<String, Object> event) {
+        Object repoObj = event.get("repo");
+        if (!(repoObj instanceof Map)) return null;
+        return (String) ((Map<?, ?>) repoObj).get("name");
+    }
+
+    private static List<String> commitMessages(Map<String, Object> event) {
+        if (!(event.get("payload") instanceof Map<?, ?> payload)) return List.of();
+        if (!(payload.get("commits") instanceof List<?> commits)) return List.of();
+        List<String> messages = new ArrayList<>(commits.size());
+        for (Object commit : commits) {
+            if (commit instanceof Map<?, ?> map && map.get("message") instanceof String message) messages.add(message);
+        }
+        return messages;
+    }
+
+    private static long parseId(Object id) {
+        if (id == null) return NO_ID;
+        try {
+            return Long.parseLong(id.toString());
+        } catch (NumberFormatException e) {
+            return NO_ID;
+        }
+    }
+
+    public static final class Builder {
+        private int size;
+        private long[] ids;
+        private int[] createdAt;
+        private byte[] types;
+        private int[] repoIndexes;
+        private final Map<String, Integer> repoIndex = new HashMap<>();
+        /** keywordStarts[i] is where event i's keywords begin; the entry after the last event is keywordCount */
+        private int[] keywordStarts;
+        private int[] keywordIndexes = new int[0];
+        private int keywordCount;
+        private final Map<String, Integer> keywordIndex = new HashMap<>();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.ids = new long[capacity];
+            this.createdAt = new int[capacity];
+            this.types = new byte[capacity];
+            this.repoIndexes = new int[capacity];
+            this.keywordStarts = new int[capacity + 1];
+        }
+
+        public Builder add(long id, String type, String createdAt, String repoName) {
+            return add(id, EventType.fromGithubName(type), Timestamps.parse(createdAt), repoName);
+        }
+
+        public Builder add(EventBatch batch, int index) {
+            add(batch.ids[index], batch.getType(index), batch.createdAt[index], batch.getRepoNameOf(index));
+            for (int k = batch.keywordStarts[index]; k < batch.keywordStarts[index + 1]; k++) {
+                addKeyword(batch.keywords[batch.keywordIndexes[k]]);
+            }
+            return this;
+        }
+
+        public Builder add(long id, EventType type, int createdAtEpochSecond, String repoName) {
+            if (size == types.length) grow();
+            this.ids[size] = id;
+            this.createdAt[size] = createdAtEpochSecond;
+            this.types[size] = type.code();
+            this.repoIndexes[size] = repoName == null ? NO_REPO : repoIndex.computeIfAbsent(repoName, k -> repoIndex.size());
+            size++;
+            keywordStarts[size] = keywordCount;
+            return this;
+        }
+
+        /**
+         * Records one occurrence of {@code keyword} for the event added last.
+         */
+        public Builder addKeyword(String keyword) {
+            if (size == 0) throw new IllegalStateException("No event to attach the keyword to");
+            if (keywordCount == keywordIndexes.length) keywordIndexes = Arrays.copyOf(keywordIndexes, Math.max(16, keywordCount * 2));
+            keywordIndexes[keywordCount++] = keywordIndex.computeIfAbsent(keyword, k -> keywordIndex.size());
+            keywordStarts[size] = keywordCount;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public EventBatch build() {
+            if (size == 0) return EMPTY;
+            String[] names = new String[repoIndex.size()];
+            repoIndex.forEach((name, index) -> names[index] = name);
+            String[] keywords = new String[keywordIndex.size()];
+            keywordIndex.forEach((keyword, index) -> keywords[index] = keyword);
+            return new EventBatch(size,
+                Arrays.copyOf(ids, size),
+                Arrays.copyOf(createdAt, size),
+                Arrays.copyOf(types, size),
+                Arrays.copyOf(repoIndexes, size),
+                names,
+                Arrays.copyOf(keywordStarts, size + 1),
+                Arrays.copyOf(keywordIndexes, keywordCount),
+                keywords);
+        }
+
+        private void grow() {
+            int capacity = types.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            types = Arrays.copyOf(types, capacity);
+            repoIndexes = Arrays.copyOf(repoIndexes, capacity);
+            keywordStarts = Arrays.copyOf(keywordStarts, capacity + 1);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.devpulse.analysis;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads a GitHub events response (a JSON array of events) straight into an
+ * {@link EventBatch} at the token level. Only the configured fields are decoded; every
+ * other value, including the large {@code payload} objects, is skipped without being
+ * materialized. Event ids, types and timestamps are decoded from the parser's character
+ * buffer, and a repo name equal to the previous event's reuses its string. Commit
+ * messages are never turned into strings either: the {@link KeywordMatcher} runs over
+ * the parser's buffer and only the matched terms are kept.
+ */
+public class EventBatchParser {
+
+    public static final String ID = "id";
+    public static final String TYPE = "type";
+    public static final String CREATED_AT = "created_at";
+    public static final String REPO_NAME = "repo.name";
+    public static final String COMMIT_MESSAGE = "payload.commits.message";
+
+    /**
+     * Fields the batch has a column for, and the default selection.
+     */
+    public static final List<String> SUPPORTED_FIELDS = List.of(ID, TYPE, CREATED_AT, REPO_NAME, COMMIT_MESSAGE);
+
+    private final JsonFactory jsonFactory;
+    private final boolean readId;
+    private final boolean readType;
+    private final boolean readCreatedAt;
+    private final boolean readRepoName;
+    private final KeywordMatcher keywordMatcher;
+
+    public EventBatchParser(JsonFactory jsonFactory, Collection<String> fields) {
+        this(jsonFactory, fields, null);
+    }
+
+    /**
+     * @param fields         the subset of {@link #SUPPORTED_FIELDS} to decode; the others are left
+     *                       at their "missing" value ({@link EventBatch#NO_ID}, {@link EventType#OTHER},
+     *                       {@link EventBatch#NO_TIMESTAMP}, no repo, no keywords)
+     * @param keywordMatcher scans commit messages when {@link #COMMIT_MESSAGE} is selected; null skips them
+     */
+    public EventBatchParser(JsonFactory jsonFactory, Collection<String> fields, KeywordMatcher keywordMatcher) {
+        for (String field : fields) {
+            if (!SUPPORTED_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unsupported event field: " + field + " (supported: " + SUPPORTED_FIELDS + ")");
+            }
+        }
+        this.jsonFactory = jsonFactory;
+        this.readId = fields.contains(ID);
+        this.readType = fields.contains(TYPE);
+        this.readCreatedAt = fields.contains(CREATED_AT);
+        this.readRepoName = fields.contains(REPO_NAME);
+        this.keywordMatcher = fields.contains(COMMIT_MESSAGE) ? keywordMatcher : null;
+    }
+
+    public EventBatch parse(byte[] body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of events");
+            }
+            EventBatch.Builder builder = EventBatch.builder(100);
+            String lastRepoName = null;
+            KeywordMatcher.Hits hits = new KeywordMatcher.Hits();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long id = EventBatch.NO_ID;
+                EventType type = EventType.OTHER;
+                int createdAt = EventBatch.NO_TIMESTAMP;
+                String repoName = null;
+                hits.clear();
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    // Field names come from Jackson's symbol table, not a new string per event
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if (readId && ID.equals(field)) {
+                        id = readId(parser, value);
+                    } else if (readType && TYPE.equals(field) && value == JsonToken.VALUE_STRING) {
+                        type = EventType.fromGithubName(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    } else if (readCreatedAt && CREATED_AT.equals(field) && value == JsonToken.VALUE_STRING) {
+                        createdAt = Timestamps.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    } else if (readRepoName && "repo".equals(field) && value == JsonToken.START_OBJECT) {
+                        repoName = readRepoName(parser, lastRepoName);
+                        if (repoName != null) lastRepoName = repoName;
+                    } else if (keywordMatcher != null && "payload".equals(field) && value == JsonToken.START_OBJECT) {
+                        scanCommitMessages(parser, hits);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                builder.add(id, type, createdAt, repoName);
+                for (int i = 0; i < hits.size(); i++) builder.addKeyword(keywordMatcher.getTerm(hits.get(i)));
+            }
+            return builder.build();
+        }
+    }
+
+    private static long readId(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) return parser.getLongValue();
+        if (value != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return EventBatch.NO_ID;
+        }
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length > 18) return parseLongOrNoId(parser.getText());
+        if (length == 0) return EventBatch.NO_ID;
+        long id = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') return EventBatch.NO_ID;
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    private static long parseLongOrNoId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return EventBatch.NO_ID;
+        }
+    }
+
+    /**
+     * Reads {@code name} from the repo object the parser is positioned on, leaving the
+     * parser at its END_OBJECT.
+     */
+    private static String readRepoName(JsonParser parser, String lastRepoName) throws IOException {
+        String name = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("name".equals(field) && value == JsonToken.VALUE_STRING) {
+                name = sameText(parser, lastRepoName) ? lastRepoName : parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Runs the matcher over every {@code commits[].message} of the payload object the parser
+     * is positioned on, leaving the parser at its END_OBJECT.
+     */
+    private void scanCommitMessages(JsonParser parser, KeywordMatcher.Hits hits) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (!"commits".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            for (JsonToken commit = parser.nextToken(); commit != JsonToken.END_ARRAY; commit = parser.nextToken()) {
+                if (commit != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String commitField = parser.currentName();
+                    JsonToken commitValue = parser.nextToken();
+                    if ("message".equals(commitField) && commitValue == JsonToken.VALUE_STRING) {
+                        keywordMatcher.scan(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), hits);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean sameText(JsonParser parser, String text) throws IOException {
+        if (text == null || text.length() != parser.getTextLength()) return false;
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        for (int i = 0; i < text.length(); i++) {
+            if (chars[offset + i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+}
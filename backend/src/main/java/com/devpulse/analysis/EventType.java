@@ -0,0 +1,70 @@
+package com.devpulse.analysis;
+
+/**
+ * GitHub event types the analysis distinguishes. Stored in {@link EventBatch} as a
+ * one-byte code (the ordinal), so unknown types collapse into {@link #OTHER}.
+ */
+public enum EventType {
+    OTHER(null),
+    PUSH("PushEvent"),
+    CREATE("CreateEvent"),
+    COMMIT_COMMENT("CommitCommentEvent"),
+    PULL_REQUEST("PullRequestEvent"),
+    PULL_REQUEST_REVIEW("PullRequestReviewEvent"),
+    ISSUES("IssuesEvent"),
+    ISSUE_COMMENT("IssueCommentEvent"),
+    DELETE("DeleteEvent"),
+    FORK("ForkEvent"),
+    WATCH("WatchEvent"),
+    RELEASE("ReleaseEvent");
+
+    private static final EventType[] VALUES = values();
+
+    private final String githubName;
+
+    EventType(String githubName) {
+        this.githubName = githubName;
+    }
+
+    public String getGithubName() {
+        return githubName;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Events counted as commit activity by the analysis metrics.
+     */
+    public boolean isCommit() {
+        return this == PUSH || this == CREATE || this == COMMIT_COMMENT;
+    }
+
+    public static EventType fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    public static EventType fromGithubName(String name) {
+        if (name == null) return OTHER;
+        for (int i = 1; i < VALUES.length; i++) {
+            if (VALUES[i].githubName.equals(name)) return VALUES[i];
+        }
+        return OTHER;
+    }
+
+    /**
+     * Same as {@link #fromGithubName(String)} for a name held in a character buffer,
+     * without creating a string.
+     */
+    public static EventType fromGithubName(char[] chars, int offset, int length) {
+        for (int i = 1; i < VALUES.length; i++) {
+            String name = VALUES[i].githubName;
+            if (name.length() != length) continue;
+            int c = 0;
+            while (c < length && name.charAt(c) == chars[offset + c]) c++;
+            if (c == length) return VALUES[i];
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,205 @@
+package com.devpulse.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aho–Corasick automaton over a fixed dictionary of terms: a text is scanned once,
+ * whatever the number of terms, and every whole-word occurrence of every term is
+ * reported. Matching is case-insensitive; terms match only between word boundaries
+ * (a letter or digit must not touch either end), so "hack" does not match "hackathon".
+ *
+ * <p>Immutable after construction and safe to share between threads.
+ */
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+
+    private final String[] terms;
+    private final int[] termLengths;
+    /** Transitions of each state: sorted characters and the matching target states */
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    /** Term ending at each state, or -1 */
+    private final int[] termAt;
+    /** Nearest state on the failure chain that ends a term, or -1 */
+    private final int[] outputLink;
+
+    private KeywordMatcher(String[] terms, int[] termLengths, char[][] edgeChars, int[][] edgeTargets,
+                           int[] failure, int[] termAt, int[] outputLink) {
+        this.terms = terms;
+        this.termLengths = termLengths;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.termAt = termAt;
+        this.outputLink = outputLink;
+    }
+
+    /**
+     * Builds the automaton; terms are lowercased, blank ones and duplicates dropped.
+     */
+    public static KeywordMatcher of(Collection<String> dictionary) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String term : dictionary) {
+            if (term != null && !term.isBlank()) unique.add(fold(term.trim()));
+        }
+        String[] terms = unique.toArray(new String[0]);
+
+        // Trie
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new HashMap<>());
+        ends.add(-1);
+        for (int t = 0; t < terms.length; t++) {
+            int state = ROOT;
+            for (char c : terms[t].toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    ends.add(-1);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            ends.set(state, t);
+        }
+
+        int states = trie.size();
+        char[][] edgeChars = new char[states][];
+        int[][] edgeTargets = new int[states][];
+        int[] termAt = new int[states];
+        for (int s = 0; s < states; s++) {
+            Map<Character, Integer> edges = trie.get(s);
+            char[] chars = new char[edges.size()];
+            int i = 0;
+            for (char c : edges.keySet()) chars[i++] = c;
+            Arrays.sort(chars);
+            int[] targets = new int[chars.length];
+            for (i = 0; i < chars.length; i++) targets[i] = edges.get(chars[i]);
+            edgeChars[s] = chars;
+            edgeTargets[s] = targets;
+            termAt[s] = ends.get(s);
+        }
+
+        // Failure and output links, breadth first
+        int[] failure = new int[states];
+        int[] outputLink = new int[states];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[ROOT]) {
+            failure[target] = ROOT;
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int target = edgeTargets[state][i];
+                int fallback = failure[state];
+                int next;
+                while ((next = step(edgeChars, edgeTargets, fallback, c)) < 0 && fallback != ROOT) {
+                    fallback = failure[fallback];
+                }
+                failure[target] = next >= 0 ? next : ROOT;
+                int suffix = failure[target];
+                outputLink[target] = termAt[suffix] >= 0 ? suffix : outputLink[suffix];
+                queue.add(target);
+            }
+        }
+
+        int[] termLengths = new int[terms.length];
+        for (int t = 0; t < terms.length; t++) termLengths[t] = terms[t].length();
+        return new KeywordMatcher(terms, termLengths, edgeChars, edgeTargets, failure, termAt, outputLink);
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    public String getTerm(int index) {
+        return terms[index];
+    }
+
+    /**
+     * Scans {@code length} characters from {@code offset} and adds the index of every
+     * term occurrence to {@code hits}. Nothing is allocated unless {@code hits} grows.
+     */
+    public void scan(char[] chars, int offset, int length, Hits hits) {
+        int end = offset + length;
+        int state = ROOT;
+        for (int i = offset; i < end; i++) {
+            char c = fold(chars[i]);
+            int next;
+            while ((next = step(edgeChars, edgeTargets, state, c)) < 0 && state != ROOT) {
+                state = failure[state];
+            }
+            state = next >= 0 ? next : ROOT;
+            for (int s = termAt[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int term = termAt[s];
+                int start = i - termLengths[term] + 1;
+                if ((start == offset || !isWordChar(chars[start - 1])) && (i + 1 == end || !isWordChar(chars[i + 1]))) {
+                    hits.add(term);
+                }
+            }
+        }
+    }
+
+    public void scan(String text, Hits hits) {
+        char[] chars = text.toCharArray();
+        scan(chars, 0, chars.length, hits);
+    }
+
+    private static int step(char[][] edgeChars, int[][] edgeTargets, int state, char c) {
+        int index = Arrays.binarySearch(edgeChars[state], c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    private static String fold(String term) {
+        char[] chars = term.toCharArray();
+        for (int i = 0; i < chars.length; i++) chars[i] = fold(chars[i]);
+        return new String(chars);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Growable list of matched term indexes, reusable across scans.
+     */
+    public static final class Hits {
+        private int[] terms = new int[8];
+        private int size;
+
+        void add(int term) {
+            if (size == terms.length) terms = Arrays.copyOf(terms, size * 2);
+            terms[size++] = term;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int get(int index) {
+            return terms[index];
+        }
+
+        public void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.devpulse.analysis;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Streaming, mergeable KLL quantile sketch (Karnin, Lang and Liberty, 2016). Values go
+ * into level 0; when a level fills up it is sorted and every other value is promoted
+ * to the next level with twice the weight. Level capacities shrink geometrically from
+ * the top, so memory stays around {@code 3k} values however many are added.
+ *
+ * <p>Ranks and quantiles are within about {@link #getRankError()} of the exact ones
+ * (normalized rank error). Up to roughly {@code k} values nothing is compacted and
+ * answers are exact. Not thread-safe.
+ */
+public class QuantileSketch {
+
+    /** Normalized rank error is about this constant over k (99% confidence, as measured for KLL) */
+    private static final double RANK_ERROR_FACTOR = 3.3;
+    private static final double CAPACITY_DECAY = 2.0 / 3;
+    private static final int MIN_K = 8;
+
+    private final int k;
+    private final Random random;
+    private double[][] levels = new double[0][];
+    private int[] sizes = new int[0];
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch(int k) {
+        this(k, new Random());
+    }
+
+    QuantileSketch(int k, Random random) {
+        if (k < MIN_K) throw new IllegalArgumentException("k must be at least " + MIN_K + ": " + k);
+        this.k = k;
+        this.random = random;
+        grow();
+    }
+
+    /**
+     * @param rankError target normalized rank error, e.g. 0.01 for one percentile point
+     */
+    public static QuantileSketch withRankError(double rankError) {
+        if (rankError <= 0 || rankError >= 1) throw new IllegalArgumentException("Rank error must be in (0, 1): " + rankError);
+        return new QuantileSketch(Math.max(MIN_K, (int) Math.ceil(RANK_ERROR_FACTOR / rankError)));
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        append(0, value);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (retained >= maxRetained) compress();
+    }
+
+    /**
+     * Adds everything {@code other} summarizes; {@code other} is left unchanged.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) return;
+        while (levels.length < other.levels.length) grow();
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.sizes[level]; i++) append(level, other.levels[level][i]);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        while (retained >= maxRetained) compress();
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(k, random);
+        copy.merge(this);
+        return copy;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double getRankError() {
+        return RANK_ERROR_FACTOR / k;
+    }
+
+    /**
+     * Mid-rank of {@code value} in [0, 1]: the fraction of values below it plus half of
+     * those equal to it, so tied scores share the same rank.
+     */
+    public double getRank(double value) {
+        if (count == 0) return 0.0;
+        long below = 0;
+        long equal = 0;
+        for (int level = 0; level < levels.length; level++) {
+            long weight = 1L << level;
+            for (int i = 0; i < sizes[level]; i++) {
+                double item = levels[level][i];
+                if (item < value) below += weight;
+                else if (item == value) equal += weight;
+            }
+        }
+        return (below + equal / 2.0) / count;
+    }
+
+    /**
+     * @param fraction in [0, 1], e.g. 0.9 for the 90th percentile
+     * @return the smallest retained value whose cumulative weight reaches {@code fraction},
+     *         or NaN if the sketch is empty
+     */
+    public double getQuantile(double fraction) {
+        if (count == 0) return Double.NaN;
+        if (fraction <= 0) return min;
+        if (fraction >= 1) return max;
+
+        double[] items = new double[retained];
+        long[] weights = new long[retained];
+        int n = 0;
+        for (int level = 0; level < levels.length; level++) {
+            for (int i = 0; i < sizes[level]; i++) {
+                items[n] = levels[level][i];
+                weights[n++] = 1L << level;
+            }
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(items[a], items[b]));
+
+        double target = fraction * count;
+        long cumulative = 0;
+        for (int index : order) {
+            cumulative += weights[index];
+            if (cumulative >= target) return items[index];
+        }
+        return max;
+    }
+
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(16, levels[level].length * 2));
+        }
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    private void grow() {
+        int count = levels.length + 1;
+        levels = Arrays.copyOf(levels, count);
+        levels[count - 1] = new double[0];
+        sizes = Arrays.copyOf(sizes, count);
+        maxRetained = 0;
+        for (int level = 0; level < count; level++) maxRetained += capacity(level);
+    }
+
+    /**
+     * The top level holds k values, each level below two thirds of the one above.
+     */
+    private int capacity(int level) {
+        int depth = levels.length - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)) + 1);
+    }
+
+    /**
+     * Compacts the lowest full levels until the sketch is back under its budget.
+     */
+    private void compress() {
+        for (int level = 0; level < levels.length; level++) {
+            if (sizes[level] < capacity(level)) continue;
+            if (level + 1 == levels.length) grow();
+            compact(level);
+            if (retained < maxRetained) return;
+        }
+    }
+
+    /**
+     * Sorts the level and promotes the values at odd or even positions, chosen at random
+     * so the rank error is unbiased. With an odd size the smallest value stays behind.
+     */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int kept = size % 2;
+        for (int i = kept + (random.nextBoolean() ? 1 : 0); i < size; i += 2) append(level + 1, items[i]);
+        sizes[level] = kept;
+        retained -= size - kept;
+    }
+}
@@ -0,0 +1,68 @@
+package com.devpulse.analysis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Team-level aggregate built from member snapshots: their counters merged into one
+ * {@link ActivitySnapshot}, plus a {@link QuantileSketch} per member score for
+ * percentiles. Members may be added from several threads, in any order; memory does
+ * not grow with the number of members.
+ */
+public class TeamActivity {
+
+    public static final String RECOMMENDATION_SCORE = "recommendationScore";
+    public static final String PRODUCTIVITY_SCORE = "productivityScore";
+    public static final String WORK_LIFE_BALANCE = "workLifeBalance";
+
+    private static final int[] PERCENTILES = {25, 50, 75, 90};
+
+    private ActivitySnapshot totals;
+    private int memberCount;
+    private final Map<String, QuantileSketch> scores = new LinkedHashMap<>();
+
+    /**
+     * @param rankError normalized rank error of the score percentiles
+     */
+    public TeamActivity(double rankError) {
+        scores.put(RECOMMENDATION_SCORE, QuantileSketch.withRankError(rankError));
+        scores.put(PRODUCTIVITY_SCORE, QuantileSketch.withRankError(rankError));
+        scores.put(WORK_LIFE_BALANCE, QuantileSketch.withRankError(rankError));
+    }
+
+    public synchronized TeamActivity add(ActivitySnapshot member) {
+        totals = totals == null ? member : totals.merge(member);
+        memberCount++;
+        scores.get(RECOMMENDATION_SCORE).add(member.getRecommendationScore());
+        scores.get(PRODUCTIVITY_SCORE).add(member.getProductivityScore());
+        scores.get(WORK_LIFE_BALANCE).add(member.getWorkLifeBalance());
+        return this;
+    }
+
+    public synchronized int getMemberCount() {
+        return memberCount;
+    }
+
+    /**
+     * @return the merged member snapshot, or an empty one if no member was added
+     */
+    public synchronized ActivitySnapshot getTotals() {
+        return totals != null ? totals : new ActivityAccumulator().snapshot();
+    }
+
+    /**
+     * 25th, 50th, 75th and 90th percentile of each member score, e.g.
+     * {@code {"recommendationScore": {"p25": 40.0, "p50": 60.0, ...}, ...}}.
+     */
+    public synchronized Map<String, Map<String, Double>> getScorePercentiles() {
+        Map<String, Map<String, Double>> percentiles = new LinkedHashMap<>();
+        scores.forEach((score, sketch) -> {
+            Map<String, Double> byRank = new LinkedHashMap<>();
+            for (int p : PERCENTILES) {
+                byRank.put("p" + p, sketch.isEmpty() ? 0.0 : sketch.getQuantile(p / 100.0));
+            }
+            percentiles.put(score, byRank);
+        });
+        return percentiles;
+    }
+}
@@ -0,0 +1,124 @@
+package com.devpulse.analysis;
+
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * ISO-8601 timestamps as epoch seconds, and the calendar fields the analysis buckets by,
+ * all with integer arithmetic.
+ *
+ * <p>GitHub sends "yyyy-MM-ddTHH:mm:ssZ"; that form, fractional seconds and numeric
+ * offsets ("+hh:mm", "-hh:mm") are decoded in place without allocating. The offset is
+ * applied, so the result is always a UTC instant. Anything else falls back to
+ * {@link DateTimeFormatter#ISO_DATE_TIME}, reading a missing offset as UTC.
+ */
+public final class Timestamps {
+
+    public static final long SECONDS_PER_DAY = 24 * 3600;
+
+    private static final int[] DAYS_BEFORE_MONTH = {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private Timestamps() {
+    }
+
+    /**
+     * @return epoch seconds, or {@link EventBatch#NO_TIMESTAMP} for null
+     */
+    public static int parse(String timestamp) {
+        if (timestamp == null) return EventBatch.NO_TIMESTAMP;
+        return parse(timestamp.toCharArray(), 0, timestamp.length());
+    }
+
+    public static int parse(char[] chars, int offset, int length) {
+        long decoded = decode(chars, offset, length);
+        if (decoded != Long.MIN_VALUE) return (int) decoded;
+        return parseGeneral(new String(chars, offset, length));
+    }
+
+    public static int epochDay(long epochSecond) {
+        return (int) Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+
+    public static int hourOfDay(long epochSecond) {
+        return (int) (Math.floorMod(epochSecond, SECONDS_PER_DAY) / 3600);
+    }
+
+    /**
+     * @return 0 for Monday through 6 for Sunday (1970-01-01 was a Thursday)
+     */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7);
+    }
+
+    /**
+     * Decodes "yyyy-MM-ddTHH:mm:ss[.fraction](Z|+hh:mm|-hh:mm)".
+     *
+     * @return epoch seconds, or Long.MIN_VALUE if the text is not in that form
+     */
+    private static long decode(char[] chars, int offset, int length) {
+        if (length < 20 || chars[offset + 4] != '-' || chars[offset + 7] != '-' || chars[offset + 10] != 'T'
+            || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + 5, 2);
+        int day = digits(chars, offset + 8, 2);
+        int hour = digits(chars, offset + 11, 2);
+        int minute = digits(chars, offset + 14, 2);
+        int second = digits(chars, offset + 17, 2);
+        boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[month - 1]
+            || (month == 2 && day == 29 && !leap) || hour < 0 || hour > 23 || minute < 0 || minute > 59
+            || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int end = offset + length;
+        int i = offset + 19;
+        if (chars[i] == '.') {
+            int fractionStart = ++i;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') i++;
+            if (i == fractionStart || i - fractionStart > 9 || i == end) return Long.MIN_VALUE;
+        }
+
+        int offsetSeconds;
+        if (chars[i] == 'Z' && i + 1 == end) {
+            offsetSeconds = 0;
+        } else if ((chars[i] == '+' || chars[i] == '-') && i + 6 == end && chars[i + 3] == ':') {
+            int offsetHours = digits(chars, i + 1, 2);
+            int offsetMinutes = digits(chars, i + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) return Long.MIN_VALUE;
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (chars[i] == '-' ? -1 : 1);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        long y = year - 1;
+        long epochDay = 365 * y + y / 4 - y / 100 + y / 400 - 719162
+            + DAYS_BEFORE_MONTH[month - 1] + (month > 2 && leap ? 1 : 0) + day - 1;
+        return epochDay * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offsetSeconds;
+    }
+
+    private static int parseGeneral(String timestamp) {
+        TemporalAccessor parsed = DateTimeFormatter.ISO_DATE_TIME.parse(timestamp);
+        long epochDay = parsed.getLong(ChronoField.EPOCH_DAY);
+        long secondOfDay = parsed.isSupported(ChronoField.SECOND_OF_DAY) ? parsed.getLong(ChronoField.SECOND_OF_DAY) : 0;
+        long offsetSeconds = parsed.isSupported(ChronoField.OFFSET_SECONDS) ? parsed.getLong(ChronoField.OFFSET_SECONDS) : 0;
+        return (int) (epochDay * SECONDS_PER_DAY + secondOfDay - offsetSeconds);
+    }
+
+    /**
+     * @return the value of {@code count} decimal digits, or -1 if any is not a digit
+     */
+    private static int digits(char[] chars, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,73 @@
+package com.devpulse.analysis;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * A time zone's UTC offsets as a sorted table of transition instants, so the local time
+ * of an event is found by a binary search instead of through java.time objects.
+ * Transitions are precomputed from 2008 (GitHub's launch) to two years from now; the
+ * last offset applies after that.
+ */
+public final class UtcOffsetTable {
+
+    public static final UtcOffsetTable UTC = new UtcOffsetTable("UTC", new long[0], new int[]{0});
+
+    private static final long FROM_EPOCH_SECOND = 1199145600L; // 2008-01-01T00:00:00Z
+    private static final long HORIZON_SECONDS = 2 * 366 * Timestamps.SECONDS_PER_DAY;
+
+    private final String zoneId;
+    /** transitions[i] is the first second at which offsets[i + 1] applies */
+    private final long[] transitions;
+    private final int[] offsets;
+
+    private UtcOffsetTable(String zoneId, long[] transitions, int[] offsets) {
+        this.zoneId = zoneId;
+        this.transitions = transitions;
+        this.offsets = offsets;
+    }
+
+    public static UtcOffsetTable of(ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        Instant from = Instant.ofEpochSecond(FROM_EPOCH_SECOND);
+        int first = rules.getOffset(from).getTotalSeconds();
+        if (rules.isFixedOffset()) return new UtcOffsetTable(zone.getId(), new long[0], new int[]{first});
+
+        long until = System.currentTimeMillis() / 1000 + HORIZON_SECONDS;
+        long[] transitions = new long[16];
+        int[] offsets = new int[17];
+        offsets[0] = first;
+        int count = 0;
+        for (ZoneOffsetTransition t = rules.nextTransition(from); t != null && t.toEpochSecond() < until;
+             t = rules.nextTransition(t.getInstant())) {
+            if (count == transitions.length) {
+                transitions = Arrays.copyOf(transitions, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2 + 1);
+            }
+            transitions[count] = t.toEpochSecond();
+            offsets[++count] = t.getOffsetAfter().getTotalSeconds();
+        }
+        return new UtcOffsetTable(zone.getId(), Arrays.copyOf(transitions, count), Arrays.copyOf(offsets, count + 1));
+    }
+
+    public String getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * @return the offset from UTC, in seconds, in effect at {@code epochSecond}
+     */
+    public int offsetAt(long epochSecond) {
+        if (transitions.length == 0) return offsets[0];
+        int index = Arrays.binarySearch(transitions, epochSecond);
+        // An exact hit is the first second of the new offset
+        return offsets[index >= 0 ? index + 1 : -index - 1];
+    }
+
+    public long toLocal(long epochSecond) {
+        return epochSecond + offsetAt(epochSecond);
+    }
+}
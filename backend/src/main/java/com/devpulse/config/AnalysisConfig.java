@@ -0,0 +1,43 @@
+package com.devpulse.config;
+
+import com.devpulse.analysis.KeywordMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.Clock;
+import java.util.List;
+
+@Configuration
+public class AnalysisConfig {
+
+    /**
+     * Terms that hint at rushed or frustrated work, in English, Portuguese and Spanish.
+     */
+    private static final List<String> DEFAULT_SUSPECT_WORDS = List.of(
+        "wip", "hotfix", "quick fix", "fix again", "hack", "workaround", "temp", "tmp",
+        "wtf", "oops", "ugh", "broken", "urgent", "asap", "revert",
+        "gambiarra", "gambi", "de novo", "urgente", "corrigindo de novo", "não funciona", "nao funciona",
+        "deu ruim", "pqp", "provisório", "provisorio",
+        "otra vez", "arreglo rápido", "arreglo rapido", "parche", "no funciona", "chapuza"
+    );
+
+    @Value("${analysis.suspect-words:}")
+    private String[] suspectWords;
+
+    /**
+     * Source of "now" for idle days and trend windows; always UTC, since event timestamps
+     * are UTC epoch seconds.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    /**
+     * Dictionary for the commit message scan that fills {@code suspectWords}.
+     */
+    @Bean
+    public KeywordMatcher suspectWordMatcher() {
+        return KeywordMatcher.of(suspectWords.length == 0 ? DEFAULT_SUSPECT_WORDS : List.of(suspectWords));
+    }
+}
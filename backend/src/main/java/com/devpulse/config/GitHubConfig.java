@@ -1,10 +1,19 @@
 package com.devpulse.config;
 
+import com.devpulse.service.AdaptiveBulkhead;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class GitHubConfig {
@@ -15,9 +24,61 @@ public class GitHubConfig {
     @Value("${github.username}")
     private String githubUsername;
 
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String apiBaseUrl;
+
+    @Value("${github.fetch.threads:32}")
+    private int fetchThreads;
+
+    @Value("${github.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${github.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
+    @Value("${github.pagination.max-pages:10}")
+    private int maxPages;
+
+    @Value("${github.pagination.max-events:1000}")
+    private int maxEvents;
+
+    @Value("${github.bulkhead.initial-limit:16}")
+    private int bulkheadInitialLimit;
+
+    @Value("${github.bulkhead.min-limit:2}")
+    private int bulkheadMinLimit;
+
+    @Value("${github.bulkhead.max-limit:64}")
+    private int bulkheadMaxLimit;
+
+    @Value("${github.bulkhead.max-queued:32}")
+    private int bulkheadMaxQueued;
+
+    @Value("${github.bulkhead.max-queue-wait-ms:2000}")
+    private long bulkheadMaxQueueWaitMs;
+
+    @Value("${github.bulkhead.retry-after-seconds:5}")
+    private long bulkheadRetryAfterSeconds;
+
+    @Value("${github.events.fields:id,type,created_at,repo.name,payload.commits.message}")
+    private String[] eventFields;
+
+    /**
+     * Backed by the JDK HttpClient, which keeps connections alive in a shared pool and
+     * negotiates HTTP/2 with the GitHub API, so concurrent calls reuse one connection.
+     * Created on the first GitHub call rather than at startup.
+     */
     @Bean
+    @Lazy
     public RestTemplate githubRestTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
+        HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
         restTemplate.getInterceptors().add((request, body, execution) -> {
             request.getHeaders().set(HttpHeaders.AUTHORIZATION, "Bearer " + githubToken);
             request.getHeaders().set(HttpHeaders.ACCEPT, "application/vnd.github.v3+json");
@@ -26,7 +87,54 @@ public class GitHubConfig {
         return restTemplate;
     }
 
+    /**
+     * Runs every outgoing GitHub call, so request threads are released while upstream
+     * calls are in flight. Its size bounds the number of concurrent GitHub requests.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService githubExecutor() {
+        return Executors.newFixedThreadPool(fetchThreads, new CustomizableThreadFactory("github-fetch-"));
+    }
+
+    /**
+     * Admission control for the endpoints that may have to call GitHub, so a GitHub
+     * slowdown sheds their requests early instead of holding every one of them open.
+     * Its limit follows the latency of GitHub calls.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public AdaptiveBulkhead githubBulkhead() {
+        return new AdaptiveBulkhead("github", bulkheadInitialLimit, bulkheadMinLimit, bulkheadMaxLimit,
+            bulkheadMaxQueued, bulkheadMaxQueueWaitMs, bulkheadRetryAfterSeconds);
+    }
+
     public String getGithubUsername() {
         return githubUsername;
     }
+
+    /**
+     * Root of the GitHub REST API, without a trailing slash. Point it at a GitHub
+     * Enterprise server or at a local simulator for load tests.
+     */
+    public String getApiBaseUrl() {
+        return apiBaseUrl.endsWith("/") ? apiBaseUrl.substring(0, apiBaseUrl.length() - 1) : apiBaseUrl;
+    }
+
+    public int getFetchThreads() {
+        return fetchThreads;
+    }
+
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    /**
+     * Event fields decoded from GitHub responses; everything else is skipped unread.
+     */
+    public List<String> getEventFields() {
+        return List.of(eventFields);
+    }
 } 
\ No newline at end of file
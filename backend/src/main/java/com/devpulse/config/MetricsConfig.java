@@ -0,0 +1,78 @@
+package com.devpulse.config;
+
+import com.devpulse.service.AdaptiveBulkhead;
+import com.devpulse.service.GitHubCallScheduler;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import com.devpulse.service.GitHubResponseCache;
+import com.devpulse.service.TrackedUserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges and counters read from the GitHub response cache, call scheduler and tracked
+ * users at scrape time (GET /actuator/prometheus), so the hot path pays nothing for them.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder githubCacheMetrics(GitHubResponseCache cache) {
+        return registry -> {
+            FunctionCounter.builder("devpulse.github.cache.requests", cache, GitHubResponseCache::getHits)
+                .tag("result", "hit").register(registry);
+            FunctionCounter.builder("devpulse.github.cache.requests", cache, GitHubResponseCache::getMisses)
+                .tag("result", "miss").register(registry);
+            FunctionCounter.builder("devpulse.github.cache.requests", cache, GitHubResponseCache::getNotModified)
+                .tag("result", "not_modified").register(registry);
+            FunctionCounter.builder("devpulse.github.cache.evictions", cache, GitHubResponseCache::getEvictions)
+                .register(registry);
+            Gauge.builder("devpulse.github.cache.entries", cache, GitHubResponseCache::getEntryCount)
+                .register(registry);
+            Gauge.builder("devpulse.github.cache.size", cache, GitHubResponseCache::getTotalBytes)
+                .baseUnit("bytes").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder githubRateLimitMetrics(GitHubCallScheduler scheduler) {
+        return registry -> {
+            Gauge.builder("devpulse.github.quota.limit", scheduler, GitHubCallScheduler::getLimit)
+                .register(registry);
+            Gauge.builder("devpulse.github.quota.remaining", scheduler, GitHubCallScheduler::getRemaining)
+                .register(registry);
+            Gauge.builder("devpulse.github.queued", scheduler, s -> s.queuedCount(Priority.INTERACTIVE))
+                .tag("priority", "interactive").register(registry);
+            Gauge.builder("devpulse.github.queued", scheduler, s -> s.queuedCount(Priority.BACKGROUND))
+                .tag("priority", "background").register(registry);
+            Gauge.builder("devpulse.github.queued", scheduler, s -> s.queuedCount(Priority.REFRESH))
+                .tag("priority", "refresh").register(registry);
+            FunctionCounter.builder("devpulse.github.shed", scheduler, GitHubCallScheduler::getShedCount)
+                .register(registry);
+            FunctionCounter.builder("devpulse.github.retries", scheduler, GitHubCallScheduler::getRetryCount)
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder trackingMetrics(TrackedUserService trackedUsers) {
+        return registry -> Gauge.builder("devpulse.tracking.backlog", trackedUsers, TrackedUserService::getBacklog)
+            .register(registry);
+    }
+
+    @Bean
+    public MeterBinder githubBulkheadMetrics(AdaptiveBulkhead githubBulkhead) {
+        return registry -> {
+            Gauge.builder("devpulse.bulkhead.limit", githubBulkhead, AdaptiveBulkhead::getLimit)
+                .tag("bulkhead", githubBulkhead.getName()).register(registry);
+            Gauge.builder("devpulse.bulkhead.active", githubBulkhead, AdaptiveBulkhead::getInFlight)
+                .tag("bulkhead", githubBulkhead.getName()).register(registry);
+            Gauge.builder("devpulse.bulkhead.queued", githubBulkhead, AdaptiveBulkhead::getQueued)
+                .tag("bulkhead", githubBulkhead.getName()).register(registry);
+            FunctionCounter.builder("devpulse.bulkhead.rejected", githubBulkhead, AdaptiveBulkhead::getRejectedCount)
+                .tag("bulkhead", githubBulkhead.getName()).register(registry);
+        };
+    }
+}
@@ -1,20 +1,42 @@
 package com.devpulse.controller;
 
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.service.AdaptiveBulkhead;
+import com.devpulse.service.AnalysisResponseCache;
+import com.devpulse.service.AnalysisResponseCache.EncodedResponse;
+import com.devpulse.service.AnalysisService;
+import com.devpulse.service.ClusterRoutingService;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import com.devpulse.service.GitHubRateLimitException;
 import com.devpulse.service.GitHubService;
+import com.devpulse.service.ScorePercentileService;
+import com.devpulse.service.ServiceOverloadedException;
+import com.devpulse.service.TeamAnalysisService;
+import com.devpulse.service.TrackedUserService;
+import com.devpulse.service.UserTimeZoneService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.Map;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.Set;
-import java.util.Objects;
 
 @RestController
 @RequestMapping("/api")
@@ -22,496 +44,395 @@ import java.util.Objects;
 public class AnalysisController {
     private static final Logger logger = LoggerFactory.getLogger(AnalysisController.class);
 
-    private final GitHubService githubService;
-
-    @Autowired
-    public AnalysisController(GitHubService githubService) {
-        this.githubService = githubService;
-        logger.info("AnalysisController initialized");
-    }
+    private final AnalysisService analysisService;
+    private final TrackedUserService trackedUsers;
+    private final UserTimeZoneService timeZones;
+    private final TeamAnalysisService teamAnalysis;
+    private final ScorePercentileService scorePercentiles;
+    private final AnalysisResponseCache responses;
+    private final AdaptiveBulkhead githubBulkhead;
+    private final ClusterRoutingService cluster;
 
-    @GetMapping("/analyze/{username}")
-    public ResponseEntity<Map<String, Object>> analyzeUser(@PathVariable String username) {
-        logger.info("Received request to analyze user: {}", username);
-        try {
-            List<Map<String, Object>> contributions = githubService.getUserContributions(username);
-            logger.info("Contributions received: {}", contributions.size());
-            
-            if (!contributions.isEmpty()) {
-                logger.info("First event type: {}", contributions.get(0).get("type"));
-                logger.info("First event created_at: {}", contributions.get(0).get("created_at"));
-            }
+    @Value("${analysis.batch.max-concurrency:8}")
+    private int batchMaxConcurrency;
 
-            Map<String, Object> analysis = new HashMap<>();
-            analysis.put("username", username);
-            analysis.put("averageCommitsPerDay", calculateAverageCommits(contributions));
-            analysis.put("lateNightCommits", calculateLateNightCommits(contributions));
-            analysis.put("weekendCommitRatio", calculateWeekendRatio(contributions));
-            analysis.put("consecutiveDays", calculateConsecutiveDays(contributions));
-            analysis.put("idleDays", calculateIdleDays(contributions));
-            analysis.put("suspectWords", new String[]{});
-            analysis.put("trend", calculateTrend(contributions));
-            analysis.put("recommendationScore", calculateRecommendationScore(contributions));
-            analysis.put("advice", generateAdvice(contributions));
-            
-            // New metrics
-            analysis.put("commitFrequency", calculateCommitFrequency(contributions));
-            analysis.put("workLifeBalance", calculateWorkLifeBalance(contributions));
-            analysis.put("productivityScore", calculateProductivityScore(contributions));
-            analysis.put("commitPatterns", analyzeCommitPatterns(contributions));
-            analysis.put("activityHours", calculateActivityHours(contributions));
-            analysis.put("projectDiversity", calculateProjectDiversity(contributions));
+    @Value("${analysis.batch.max-usernames:1000}")
+    private int batchMaxUsernames;
 
-            logger.info("Analysis completed for user: {}", username);
-            return ResponseEntity.ok(analysis);
-        } catch (Exception e) {
-            logger.error("Error analyzing user {}: {}", username, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
-    }
+    @Value("${analysis.batch.timeout-ms:600000}")
+    private long batchTimeoutMs;
 
-    @GetMapping("/report/{username}")
-    public ResponseEntity<Map<String, Object>> getUserReport(@PathVariable String username) {
-        logger.info("Received request for report of user: {}", username);
-        try {
-            List<Map<String, Object>> repos = githubService.getUserRepositories(username);
-            List<Map<String, Object>> contributions = githubService.getUserContributions(username);
+    @Value("${analysis.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
 
-            Map<String, Object> report = new HashMap<>();
-            report.put("username", username);
-            report.put("totalCommits", calculateTotalCommits(contributions));
-            report.put("totalRepositories", repos.size());
-            report.put("averageCommitsPerRepo", calculateAverageCommitsPerRepo(contributions, repos.size()));
-            report.put("analysisDate", LocalDateTime.now().toString());
+    @Value("${analysis.trends.max-buckets:520}")
+    private int trendsMaxBuckets;
 
-            logger.info("Report generated for user: {}", username);
-            return ResponseEntity.ok(report);
-        } catch (Exception e) {
-            logger.error("Error generating report for user {}: {}", username, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+    @Autowired
+    public AnalysisController(AnalysisService analysisService, TrackedUserService trackedUsers,
+                              UserTimeZoneService timeZones, TeamAnalysisService teamAnalysis,
+                              ScorePercentileService scorePercentiles, AnalysisResponseCache responses,
+                              AdaptiveBulkhead githubBulkhead, ClusterRoutingService cluster) {
+        this.analysisService = analysisService;
+        this.trackedUsers = trackedUsers;
+        this.timeZones = timeZones;
+        this.teamAnalysis = teamAnalysis;
+        this.scorePercentiles = scorePercentiles;
+        this.responses = responses;
+        this.githubBulkhead = githubBulkhead;
+        this.cluster = cluster;
+        logger.info("AnalysisController initialized");
     }
 
-    private double calculateAverageCommits(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0.0;
-        
-        long commitCount = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                logger.debug("Event type: {}", type);
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
+    /**
+     * Served from {@link AnalysisResponseCache}: a matching If-None-Match gets a 304 and
+     * clients accepting gzip get the pre-compressed body. When the analysis cannot be
+     * computed now (overload or GitHub quota), the last cached one is served as stale.
+     * With sharding enabled, users owned by another instance are fetched from it.
+     * {@code ?background=true} computes a missing analysis at background priority, as
+     * batch analyses forwarded by other instances do.
+     */
+    @GetMapping("/analyze/{username}")
+    public CompletableFuture<ResponseEntity<byte[]>> analyzeUser(@PathVariable @GitHubLogin String username,
+                                                                 @RequestParam(defaultValue = "false") boolean background,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                 @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        logger.debug("Received request to analyze user: {}", username);
+        String path = background ? "analyze/{username}?background=true" : "analyze/{username}";
+        return responses.get("analysis", username, () -> cluster.route(path, username, forwardedBy != null,
+                () -> githubBulkhead.execute(() -> background
+                    ? analysisService.analyzeUser(username, Priority.BACKGROUND)
+                    : trackedUsers.analyzeUser(username))))
+            .thenApply(response -> {
+                logger.debug("Analysis completed for user: {}", username);
+                return encodedResponse(response, ifNoneMatch, acceptEncoding);
             })
-            .count();
-            
-        logger.info("Total commit count: {}", commitCount);
-        return commitCount / 30.0;
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                ResponseEntity<byte[]> stale = staleResponse("analysis", username, cause, ifNoneMatch, acceptEncoding);
+                if (stale != null) return stale;
+                logger.error("Error analyzing user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private int calculateLateNightCommits(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0;
-        
-        return (int) contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
-            })
-            .filter(event -> {
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, 
-                    DateTimeFormatter.ISO_DATE_TIME);
-                int hour = commitTime.getHour();
-                return hour >= 22 || hour < 6;
-            })
-            .count();
+    /**
+     * Server-Sent Events variant of {@link #analyzeUser}: sends "profile", "counts",
+     * "activity" and "scores" events as each becomes available, then "complete" with the
+     * full analysis, or a single "error" event. Relayed from the owning instance when
+     * sharding is enabled.
+     */
+    @GetMapping(value = "/analyze/{username}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAnalysis(@PathVariable @GitHubLogin String username,
+                                     @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        logger.debug("Received request to stream analysis of user: {}", username);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        cluster.routeEvents("analyze/{username}/stream", username, forwardedBy != null,
+                (part, data) -> send(emitter, part, data),
+                () -> githubBulkhead.execute(() -> analysisService.analyzeProgressively(username, (part, data) -> send(emitter, part, data)))
+                    .thenAccept(analysis -> send(emitter, "complete", analysis)))
+            .whenComplete((done, error) -> {
+                if (error == null) {
+                    emitter.complete();
+                    return;
+                }
+                Throwable cause = unwrap(error);
+                logger.error("Error streaming analysis of user {}: {}", username, cause.getMessage(), cause);
+                Map<String, Object> failure = new HashMap<>();
+                failure.put("status", errorResponse(cause).getStatusCode().value());
+                if (cause instanceof GitHubRateLimitException rateLimited) {
+                    failure.put("retryAfter", rateLimited.getRetryAfterSeconds());
+                } else if (cause instanceof ServiceOverloadedException overloaded) {
+                    failure.put("retryAfter", overloaded.getRetryAfterSeconds());
+                }
+                try {
+                    send(emitter, "error", failure);
+                    emitter.complete();
+                } catch (UncheckedIOException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        return emitter;
     }
 
-    private double calculateWeekendRatio(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0.0;
-        
-        long totalCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
-            })
-            .count();
-            
-        if (totalCommits == 0) return 0.0;
-        
-        long weekendCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
-            })
-            .filter(event -> {
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, 
-                    DateTimeFormatter.ISO_DATE_TIME);
-                int dayOfWeek = commitTime.getDayOfWeek().getValue();
-                return dayOfWeek == 6 || dayOfWeek == 7;
-            })
-            .count();
-            
-        return (weekendCommits * 100.0) / totalCommits;
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            synchronized (emitter) {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
-    private int calculateConsecutiveDays(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0;
-        
-        List<LocalDateTime> commitDates = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
-            })
-            .map(event -> LocalDateTime.parse((String) event.get("created_at"), 
-                DateTimeFormatter.ISO_DATE_TIME))
-            .sorted()
-            .collect(Collectors.toList());
-            
-        if (commitDates.isEmpty()) return 0;
-        
-        int maxConsecutive = 1;
-        int currentConsecutive = 1;
-        LocalDateTime lastDate = commitDates.get(0);
-        
-        for (int i = 1; i < commitDates.size(); i++) {
-            LocalDateTime currentDate = commitDates.get(i);
-            if (lastDate.plusDays(1).toLocalDate().equals(currentDate.toLocalDate())) {
-                currentConsecutive++;
-                maxConsecutive = Math.max(maxConsecutive, currentConsecutive);
+    /**
+     * Analyzes a JSON array of usernames, streaming one JSON object per line
+     * (application/x-ndjson) in completion order.
+     */
+    @PostMapping(value = "/analyze/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> analyzeBatch(@RequestBody List<String> usernames,
+                                                            @RequestParam(required = false) Integer concurrency) {
+        if (usernames == null || usernames.isEmpty() || usernames.size() > batchMaxUsernames
+                || !usernames.stream().allMatch(GitHubService::isValidLogin)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int parallelism = Math.max(1, Math.min(concurrency != null ? concurrency : batchMaxConcurrency, batchMaxConcurrency));
+        logger.debug("Received batch analysis request for {} users", usernames.size());
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchTimeoutMs);
+        analysisService.analyzeBatch(usernames, parallelism, result -> {
+            try {
+                synchronized (emitter) {
+                    emitter.send(result, MediaType.APPLICATION_JSON);
+                    emitter.send("\n", MediaType.TEXT_PLAIN);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((done, error) -> {
+            if (error == null) {
+                emitter.complete();
             } else {
-                currentConsecutive = 1;
+                logger.warn("Batch analysis aborted: {}", unwrap(error).getMessage());
+                emitter.completeWithError(unwrap(error));
             }
-            lastDate = currentDate;
-        }
-        
-        return maxConsecutive;
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
     }
 
-    private int calculateIdleDays(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0;
-        
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime lastCommit = contributions.stream()
-            .filter(event -> "PushEvent".equals(event.get("type")))
-            .map(event -> LocalDateTime.parse((String) event.get("created_at"), 
-                DateTimeFormatter.ISO_DATE_TIME))
-            .max(LocalDateTime::compareTo)
-            .orElse(now);
-            
-        return (int) (now.toEpochSecond(ZoneOffset.UTC) - lastCommit.toEpochSecond(ZoneOffset.UTC)) / (24 * 3600);
+    /**
+     * Team-level analysis of a GitHub organization's members.
+     */
+    @GetMapping("/analyze/org/{org}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> analyzeOrganization(@PathVariable @GitHubLogin String org) {
+        logger.debug("Received request to analyze organization: {}", org);
+        return githubBulkhead.execute(() -> teamAnalysis.analyzeOrganization(org))
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                logger.error("Error analyzing organization {}: {}", org, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private int calculateTotalCommits(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0;
-        
-        return (int) contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
-            })
-            .count();
+    /**
+     * The raw counters of the user's activity snapshot, reading at most {@code maxEvents}
+     * new events from GitHub at background priority. Other instances ask the owner for
+     * these to merge the user into an organization analysis.
+     */
+    @GetMapping("/snapshot/{username}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getUserSnapshot(@PathVariable @GitHubLogin String username,
+                                                                                  @RequestParam int maxEvents,
+                                                                                  @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        if (maxEvents < 1) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return cluster.route("snapshot/{username}?maxEvents=" + maxEvents, username, forwardedBy != null,
+                () -> githubBulkhead.execute(() -> analysisService.snapshotUser(username, maxEvents, Priority.BACKGROUND))
+                    .thenApply(ActivitySnapshot::toCounters))
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                logger.error("Error taking snapshot of user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private double calculateAverageCommitsPerRepo(List<Map<String, Object>> contributions, int repoCount) {
-        if (repoCount == 0) return 0.0;
-        return calculateTotalCommits(contributions) / (double) repoCount;
+    /**
+     * Where the user's scores fall among all analyzed users, as percentiles.
+     */
+    @GetMapping("/percentiles/{username}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getUserPercentiles(@PathVariable @GitHubLogin String username,
+                                                                                     @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        logger.debug("Received request for percentiles of user: {}", username);
+        return cluster.route("percentiles/{username}", username, forwardedBy != null,
+                () -> githubBulkhead.execute(() -> trackedUsers.analyzeUser(username))
+                    .thenApply(analysis -> scorePercentiles.getPercentiles(username, analysis)))
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                logger.error("Error computing percentiles of user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private String calculateTrend(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return "indeterminado";
-        
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        
-        long recentCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
-            })
-            .filter(event -> {
-                LocalDateTime commitTime = LocalDateTime.parse((String) event.get("created_at"), 
-                    DateTimeFormatter.ISO_DATE_TIME);
-                return commitTime.isAfter(thirtyDaysAgo);
+    @GetMapping("/report/{username}")
+    public CompletableFuture<ResponseEntity<byte[]>> getUserReport(@PathVariable @GitHubLogin String username,
+                                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                                   @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        logger.debug("Received request for report of user: {}", username);
+        return responses.get("report", username, () -> cluster.route("report/{username}", username, forwardedBy != null,
+                () -> githubBulkhead.execute(() -> analysisService.getUserReport(username))))
+            .thenApply(response -> {
+                logger.debug("Report generated for user: {}", username);
+                return encodedResponse(response, ifNoneMatch, acceptEncoding);
             })
-            .count();
-            
-        if (recentCommits > 20) return "positivo";
-        if (recentCommits > 10) return "estável";
-        return "negativo";
-    }
-
-    private int calculateRecommendationScore(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0;
-        
-        int score = 0;
-        
-        // Pontuação baseada na média de commits
-        double avgCommits = calculateAverageCommits(contributions);
-        if (avgCommits > 3) score += 30;
-        else if (avgCommits > 1) score += 20;
-        else if (avgCommits > 0.5) score += 10;
-        
-        // Pontuação baseada em commits noturnos
-        int lateNightCommits = calculateLateNightCommits(contributions);
-        if (lateNightCommits < 5) score += 20;
-        else if (lateNightCommits < 10) score += 10;
-        
-        // Pontuação baseada em commits de fim de semana
-        double weekendRatio = calculateWeekendRatio(contributions);
-        if (weekendRatio < 20) score += 20;
-        else if (weekendRatio < 40) score += 10;
-        
-        // Pontuação baseada em dias consecutivos
-        int consecutiveDays = calculateConsecutiveDays(contributions);
-        if (consecutiveDays > 7) score += 30;
-        else if (consecutiveDays > 3) score += 20;
-        else if (consecutiveDays > 1) score += 10;
-        
-        return score;
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                ResponseEntity<byte[]> stale = staleResponse("report", username, cause, ifNoneMatch, acceptEncoding);
+                if (stale != null) return stale;
+                logger.error("Error generating report for user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private String generateAdvice(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) 
-            return "Nenhum dado disponível para análise.";
-            
-        StringBuilder advice = new StringBuilder();
-        
-        double avgCommits = calculateAverageCommits(contributions);
-        if (avgCommits < 0.5) {
-            advice.append("Tente aumentar sua frequência de commits. ");
-        }
-        
-        int lateNightCommits = calculateLateNightCommits(contributions);
-        if (lateNightCommits > 10) {
-            advice.append("Considere reduzir commits noturnos para melhorar seu bem-estar. ");
+    /**
+     * Daily, weekly and monthly commit activity; {@code days}, {@code weeks} and
+     * {@code months} pick the window sizes, capped at analysis.trends.max-buckets.
+     */
+    @GetMapping("/trends/{username}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getUserTrends(@PathVariable @GitHubLogin String username,
+                                                                                @RequestParam(defaultValue = "30") int days,
+                                                                                @RequestParam(defaultValue = "12") int weeks,
+                                                                                @RequestParam(defaultValue = "12") int months,
+                                                                                @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        logger.debug("Received request for trends of user: {}", username);
+        if (!isValidWindow(days) || !isValidWindow(weeks) || !isValidWindow(months)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        
-        double weekendRatio = calculateWeekendRatio(contributions);
-        if (weekendRatio > 40) {
-            advice.append("Muitos commits nos fins de semana podem indicar sobrecarga. ");
-        }
-        
-        int idleDays = calculateIdleDays(contributions);
-        if (idleDays > 7) {
-            advice.append("Considere manter um ritmo mais constante de desenvolvimento. ");
-        }
-        
-        return advice.length() > 0 ? advice.toString() : "Continue mantendo um bom ritmo de desenvolvimento!";
+        return cluster.route("trends/{username}?days=" + days + "&weeks=" + weeks + "&months=" + months, username, forwardedBy != null,
+                () -> githubBulkhead.execute(() -> analysisService.getUserTrends(username, days, weeks, months)))
+            .thenApply(ResponseEntity::ok)
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                logger.error("Error computing trends of user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private Map<String, Object> calculateCommitFrequency(List<Map<String, Object>> contributions) {
-        Map<String, Object> frequency = new HashMap<>();
-        if (contributions == null || contributions.isEmpty()) {
-            frequency.put("daily", 0);
-            frequency.put("weekly", 0);
-            frequency.put("monthly", 0);
-            return frequency;
-        }
-
-        long dailyCommits = contributions.stream()
-            .filter(event -> "PushEvent".equals(event.get("type")))
-            .count();
+    private boolean isValidWindow(int buckets) {
+        return buckets >= 1 && buckets <= trendsMaxBuckets;
+    }
 
-        frequency.put("daily", dailyCommits / 30.0);
-        frequency.put("weekly", dailyCommits / 4.0);
-        frequency.put("monthly", dailyCommits);
-        
-        return frequency;
+    /**
+     * This instance's view of the cluster: its own URL, the peers and those being skipped.
+     */
+    @GetMapping("/cluster")
+    public ResponseEntity<Map<String, Object>> getClusterStats() {
+        return ResponseEntity.ok(cluster.getStats());
     }
 
-    private double calculateWorkLifeBalance(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0.0;
-        
-        long totalCommits = contributions.stream()
-            .filter(event -> "PushEvent".equals(event.get("type")))
-            .count();
-            
-        if (totalCommits == 0) return 0.0;
-        
-        long weekendCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                if (!"PushEvent".equals(type)) return false;
-                
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                int dayOfWeek = commitTime.getDayOfWeek().getValue();
-                return dayOfWeek == 6 || dayOfWeek == 7;
-            })
-            .count();
-            
-        long lateNightCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                if (!"PushEvent".equals(type)) return false;
-                
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                int hour = commitTime.getHour();
-                return hour >= 22 || hour < 6;
+    /**
+     * Sets the time zone used for the user's hour and weekday metrics, e.g.
+     * {@code ?zone=America/Sao_Paulo}. Applied here and on the instance owning the user.
+     */
+    @PutMapping("/timezone/{username}")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> setTimeZone(@PathVariable @GitHubLogin String username, @RequestParam String zone,
+                                                                              @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        timeZones.setZone(username, zoneId);
+        responses.invalidate(username);
+        trackedUsers.invalidate(username);
+        String path = "timezone/{username}?zone=" + URLEncoder.encode(zoneId.getId(), StandardCharsets.UTF_8);
+        return cluster.replicate("PUT", path, username, forwardedBy != null)
+            .thenApply(status -> {
+                Map<String, Object> body = new HashMap<>();
+                body.put("username", username);
+                body.put("zone", zoneId.getId());
+                return ResponseEntity.ok(body);
             })
-            .count();
-            
-        double weekendRatio = (weekendCommits * 100.0) / totalCommits;
-        double lateNightRatio = (lateNightCommits * 100.0) / totalCommits;
-        
-        // Score calculation: 100 - (weekendRatio + lateNightRatio) / 2
-        return Math.max(0, 100 - (weekendRatio + lateNightRatio) / 2);
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                logger.error("Error setting time zone of user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private double calculateProductivityScore(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0.0;
-        
-        double avgCommits = calculateAverageCommits(contributions);
-        int consecutiveDays = calculateConsecutiveDays(contributions);
-        double workLifeBalance = calculateWorkLifeBalance(contributions);
-        
-        // Weighted scoring
-        double commitScore = Math.min(avgCommits * 10, 40); // Max 40 points
-        double consistencyScore = Math.min(consecutiveDays * 2, 30); // Max 30 points
-        double balanceScore = workLifeBalance * 0.3; // Max 30 points
-        
-        return commitScore + consistencyScore + balanceScore;
+    @DeleteMapping("/timezone/{username}")
+    public CompletableFuture<ResponseEntity<Void>> clearTimeZone(@PathVariable @GitHubLogin String username,
+                                                                 @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        boolean removed = timeZones.clearZone(username);
+        responses.invalidate(username);
+        trackedUsers.invalidate(username);
+        return cluster.replicate("DELETE", "timezone/{username}", username, forwardedBy != null)
+            .thenApply(status -> removed || status == HttpStatus.NO_CONTENT.value()
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build())
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                logger.error("Error clearing time zone of user {}: {}", username, cause.getMessage(), cause);
+                return errorResponse(cause);
+            });
     }
 
-    private Map<String, Object> analyzeCommitPatterns(List<Map<String, Object>> contributions) {
-        Map<String, Object> patterns = new HashMap<>();
-        if (contributions == null || contributions.isEmpty()) {
-            patterns.put("morning", 0);
-            patterns.put("afternoon", 0);
-            patterns.put("evening", 0);
-            patterns.put("night", 0);
-            return patterns;
+    /**
+     * 304 when the client already holds this version, otherwise the cached bytes, gzipped
+     * if the client accepts it. Clients must revalidate, so they never keep a stale analysis.
+     */
+    private static ResponseEntity<byte[]> encodedResponse(EncodedResponse response, String ifNoneMatch, String acceptEncoding) {
+        if (response.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(response.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .build();
         }
+        boolean gzip = response.getGzip() != null && acceptsGzip(acceptEncoding);
+        byte[] body = gzip ? response.getGzip() : response.getJson();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(body.length)
+            .eTag(response.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return builder.body(body);
+    }
 
-        long totalCommits = contributions.stream()
-            .filter(event -> "PushEvent".equals(event.get("type")))
-            .count();
-            
-        if (totalCommits == 0) {
-            patterns.put("morning", 0);
-            patterns.put("afternoon", 0);
-            patterns.put("evening", 0);
-            patterns.put("night", 0);
-            return patterns;
-        }
-
-        long morningCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                if (!"PushEvent".equals(type)) return false;
-                
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                int hour = commitTime.getHour();
-                return hour >= 6 && hour < 12;
-            })
-            .count();
-
-        long afternoonCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                if (!"PushEvent".equals(type)) return false;
-                
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                int hour = commitTime.getHour();
-                return hour >= 12 && hour < 18;
-            })
-            .count();
-
-        long eveningCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                if (!"PushEvent".equals(type)) return false;
-                
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                int hour = commitTime.getHour();
-                return hour >= 18 && hour < 22;
-            })
-            .count();
-
-        long nightCommits = contributions.stream()
-            .filter(event -> {
-                String type = (String) event.get("type");
-                if (!"PushEvent".equals(type)) return false;
-                
-                String createdAt = (String) event.get("created_at");
-                if (createdAt == null) return false;
-                
-                LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                int hour = commitTime.getHour();
-                return hour >= 22 || hour < 6;
-            })
-            .count();
-
-        patterns.put("morning", (morningCommits * 100.0) / totalCommits);
-        patterns.put("afternoon", (afternoonCommits * 100.0) / totalCommits);
-        patterns.put("evening", (eveningCommits * 100.0) / totalCommits);
-        patterns.put("night", (nightCommits * 100.0) / totalCommits);
-        
-        return patterns;
+    /**
+     * The last cached response, whatever its age, when {@code cause} only means "not now";
+     * marked with Warning 110 and its Age. Null if there is none to fall back to.
+     */
+    private ResponseEntity<byte[]> staleResponse(String kind, String username, Throwable cause,
+                                                 String ifNoneMatch, String acceptEncoding) {
+        if (!(cause instanceof ServiceOverloadedException) && !(cause instanceof GitHubRateLimitException)) return null;
+        EncodedResponse stale = responses.getStale(kind, username);
+        if (stale == null) return null;
+        logger.warn("Serving stale {} of user {}: {}", kind, username, cause.getMessage());
+        ResponseEntity<byte[]> response = encodedResponse(stale, ifNoneMatch, acceptEncoding);
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.set(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+        headers.set(HttpHeaders.AGE, String.valueOf(Math.max(0, (System.currentTimeMillis() - stale.getValidatedAt()) / 1000)));
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
     }
 
-    private Map<String, Integer> calculateActivityHours(List<Map<String, Object>> contributions) {
-        Map<String, Integer> activityHours = new HashMap<>();
-        if (contributions == null || contributions.isEmpty()) {
-            for (int i = 0; i < 24; i++) {
-                activityHours.put(String.format("%02d:00", i), 0);
-            }
-            return activityHours;
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip") && !parts[0].trim().equals("*")) continue;
+            boolean refused = parts.length > 1 && parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            return !refused;
         }
+        return false;
+    }
 
-        for (int i = 0; i < 24; i++) {
-            final int hour = i;
-            long commitsInHour = contributions.stream()
-                .filter(event -> {
-                    String type = (String) event.get("type");
-                    if (!"PushEvent".equals(type)) return false;
-                    
-                    String createdAt = (String) event.get("created_at");
-                    if (createdAt == null) return false;
-                    
-                    LocalDateTime commitTime = LocalDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
-                    return commitTime.getHour() == hour;
-                })
-                .count();
-                
-            activityHours.put(String.format("%02d:00", i), (int) commitsInHour);
+    /**
+     * An exhausted GitHub quota or a shed request is temporary, so clients are told when
+     * to come back.
+     */
+    private static <T> ResponseEntity<T> errorResponse(Throwable cause) {
+        if (cause instanceof GitHubRateLimitException rateLimited) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimited.getRetryAfterSeconds()))
+                .build();
+        }
+        if (cause instanceof ServiceOverloadedException overloaded) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()))
+                .build();
         }
-        
-        return activityHours;
+        return ResponseEntity.internalServerError().build();
     }
 
-    private double calculateProjectDiversity(List<Map<String, Object>> contributions) {
-        if (contributions == null || contributions.isEmpty()) return 0.0;
-        
-        Set<String> uniqueRepos = contributions.stream()
-            .filter(event -> "PushEvent".equals(event.get("type")))
-            .map(event -> {
-                Object repoObj = event.get("repo");
-                if (!(repoObj instanceof Map)) {
-                    return null;
-                }
-                @SuppressWarnings("unchecked")
-                Map<String, Object> repo = (Map<String, Object>) repoObj;
-                return repo != null ? (String) repo.get("name") : null;
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-            
-        return uniqueRepos.size();
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
     }
-} 
\ No newline at end of file
+}
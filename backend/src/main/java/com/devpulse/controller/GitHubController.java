@@ -1,38 +1,108 @@
 package com.devpulse.controller;
 
+import com.devpulse.service.AdaptiveBulkhead;
+import com.devpulse.service.GitHubCallScheduler;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import com.devpulse.service.GitHubRateLimitException;
+import com.devpulse.service.GitHubRawResponse;
+import com.devpulse.service.GitHubResponseCache;
 import com.devpulse.service.GitHubService;
+import com.devpulse.service.ServiceOverloadedException;
 import com.devpulse.config.GitHubConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
+/**
+ * Proxies GitHub for the configured user. Bodies are copied byte for byte from the
+ * response cache instead of being deserialized and serialized again.
+ */
 @RestController
 @RequestMapping("/api/github")
 public class GitHubController {
 
     private final GitHubService githubService;
     private final GitHubConfig githubConfig;
+    private final GitHubResponseCache responseCache;
+    private final GitHubCallScheduler callScheduler;
+    private final AdaptiveBulkhead githubBulkhead;
 
     @Autowired
-    public GitHubController(GitHubService githubService, GitHubConfig githubConfig) {
+    public GitHubController(GitHubService githubService, GitHubConfig githubConfig, GitHubResponseCache responseCache,
+                            GitHubCallScheduler callScheduler, AdaptiveBulkhead githubBulkhead) {
         this.githubService = githubService;
         this.githubConfig = githubConfig;
+        this.responseCache = responseCache;
+        this.callScheduler = callScheduler;
+        this.githubBulkhead = githubBulkhead;
     }
 
     @GetMapping("/repos")
-    public ResponseEntity<List<Map<String, Object>>> getUserRepositories() {
-        return ResponseEntity.ok(githubService.getUserRepositories(githubConfig.getGithubUsername()));
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUserRepositories() {
+        return passThrough(() -> githubService.getUserRepositoriesRawAsync(githubConfig.getGithubUsername(), Priority.INTERACTIVE));
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getUserProfile() {
-        return ResponseEntity.ok(githubService.getUserProfile(githubConfig.getGithubUsername()));
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUserProfile() {
+        return passThrough(() -> githubService.getUserProfileRawAsync(githubConfig.getGithubUsername(), Priority.INTERACTIVE)
+            .thenApply(GitHubRawResponse::single));
     }
 
     @GetMapping("/contributions")
-    public ResponseEntity<List<Map<String, Object>>> getUserContributions() {
-        return ResponseEntity.ok(githubService.getUserContributions(githubConfig.getGithubUsername()));
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUserContributions() {
+        return passThrough(() -> githubService.getUserContributionsRawAsync(githubConfig.getGithubUsername(), Priority.INTERACTIVE));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(callScheduler.getStats());
+    }
+
+    /**
+     * Writes the upstream body as is, with its validators, pagination and the current
+     * rate-limit headers. GitHub errors keep their status code. Calls go through the
+     * GitHub bulkhead and are shed with 503 when it is full.
+     */
+    private CompletableFuture<ResponseEntity<StreamingResponseBody>> passThrough(Supplier<CompletableFuture<GitHubRawResponse>> call) {
+        return githubBulkhead.execute(call).thenApply(raw -> {
+            HttpHeaders headers = callScheduler.getRateLimitHeaders();
+            if (raw.getEtag() != null) headers.setETag(raw.getEtag());
+            if (raw.getLastModified() != null) headers.set(HttpHeaders.LAST_MODIFIED, raw.getLastModified());
+            if (raw.getLink() != null) headers.set(HttpHeaders.LINK, raw.getLink());
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(raw.getContentLength());
+            StreamingResponseBody body = raw::writeTo;
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }).exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof GitHubRateLimitException rateLimited) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimited.getRetryAfterSeconds()))
+                    .build();
+            }
+            if (cause instanceof ServiceOverloadedException overloaded) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()))
+                    .build();
+            }
+            if (cause instanceof HttpStatusCodeException upstream) {
+                return ResponseEntity.status(upstream.getStatusCode()).headers(callScheduler.getRateLimitHeaders()).build();
+            }
+            return ResponseEntity.internalServerError().build();
+        });
+    }
+}
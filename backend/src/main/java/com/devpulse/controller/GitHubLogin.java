@@ -0,0 +1,32 @@
+package com.devpulse.controller;
+
+import com.devpulse.service.GitHubService;
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A GitHub user or organization name, see {@link GitHubService#isValidLogin}. On a
+ * {@code @PathVariable} it makes Spring MVC answer 400 before the handler runs, so other
+ * strings never reach GitHub URLs, the event store or the per-user caches.
+ */
+@NotNull
+@Pattern(regexp = GitHubService.LOGIN_REGEX)
+@Constraint(validatedBy = {})
+@Documented
+@Target({ElementType.PARAMETER, ElementType.FIELD, ElementType.TYPE_USE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GitHubLogin {
+
+    String message() default "must be a GitHub login (letters, digits and hyphens, at most 39)";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,81 @@
+package com.devpulse.controller;
+
+import com.devpulse.service.ClusterRoutingService;
+import com.devpulse.service.ServiceOverloadedException;
+import com.devpulse.service.TrackedUserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Users whose analyses are kept warm by {@link TrackedUserService}. Tracking changes
+ * are applied here and on the instance owning the user, which is the one refreshing it.
+ */
+@RestController
+@RequestMapping("/api/tracked")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:8081", "http://localhost:8082"})
+public class TrackedUserController {
+    private static final Logger logger = LoggerFactory.getLogger(TrackedUserController.class);
+
+    private final TrackedUserService trackedUsers;
+    private final ClusterRoutingService cluster;
+
+    @Autowired
+    public TrackedUserController(TrackedUserService trackedUsers, ClusterRoutingService cluster) {
+        this.trackedUsers = trackedUsers;
+        this.cluster = cluster;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getTrackedUsers() {
+        return ResponseEntity.ok(trackedUsers.getTrackedUsers());
+    }
+
+    /**
+     * 507 when the instance refreshing the user already tracks analysis.tracking.max-users.
+     */
+    @PutMapping("/{username}")
+    public CompletableFuture<ResponseEntity<Void>> track(@PathVariable @GitHubLogin String username,
+                                                         @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        boolean registered = trackedUsers.register(username);
+        return cluster.replicate("PUT", "tracked/{username}", username, forwardedBy != null)
+            .thenApply(status -> (status == 0 ? registered : status != HttpStatus.INSUFFICIENT_STORAGE.value())
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).<Void>build())
+            .exceptionally(e -> errorResponse("tracking", username, e));
+    }
+
+    @DeleteMapping("/{username}")
+    public CompletableFuture<ResponseEntity<Void>> untrack(@PathVariable @GitHubLogin String username,
+                                                           @RequestHeader(value = ClusterRoutingService.FORWARDED_HEADER, required = false) String forwardedBy) {
+        boolean removed = trackedUsers.unregister(username);
+        return cluster.replicate("DELETE", "tracked/{username}", username, forwardedBy != null)
+            .thenApply(status -> removed || status == HttpStatus.NO_CONTENT.value()
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build())
+            .exceptionally(e -> errorResponse("untracking", username, e));
+    }
+
+    /**
+     * An owner that cannot take the change now is reported as 503 with Retry-After, for
+     * the client to retry.
+     */
+    private static ResponseEntity<Void> errorResponse(String action, String username, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        logger.error("Error {} user {}: {}", action, username, cause.getMessage(), cause);
+        if (cause instanceof ServiceOverloadedException overloaded) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()))
+                .build();
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+}
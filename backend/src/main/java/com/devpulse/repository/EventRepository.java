@@ -0,0 +1,112 @@
+package com.devpulse.repository;
+
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Normalized GitHub events (table github_event, see schema.sql), one row per event id.
+ * Usernames are stored lowercased since GitHub logins are case-insensitive. The suspect
+ * keywords of an event are kept newline-separated, one entry per occurrence.
+ */
+@Repository
+public class EventRepository {
+
+    private static final String INSERT =
+        "INSERT INTO github_event (id, username, type, created_at, repo_name, keywords) " +
+        "SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM github_event WHERE id = ?)";
+
+    private static final int MAX_KEYWORDS_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public EventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the newest stored event id of the user, or {@link EventBatch#NO_ID}
+     */
+    public long findLatestEventId(String username) {
+        Long id = jdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM github_event WHERE username = ?", Long.class, username);
+        return id != null ? id : EventBatch.NO_ID;
+    }
+
+    /**
+     * Inserts the events not stored yet; events without an id cannot be deduplicated and
+     * are skipped.
+     */
+    public void saveAll(String username, EventBatch events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            long id = events.getId(i);
+            if (id == EventBatch.NO_ID) continue;
+            int createdAt = events.getCreatedAt(i);
+            rows.add(new Object[]{
+                id,
+                username,
+                events.getType(i).getGithubName(),
+                createdAt == EventBatch.NO_TIMESTAMP ? null : createdAt,
+                events.getRepoNameOf(i),
+                keywords(events, i),
+                id
+            });
+        }
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Loads the user's {@code limit} newest events, newest first like the GitHub API.
+     */
+    public EventBatch findRecent(String username, int limit) {
+        return query("SELECT id, type, created_at, repo_name, keywords FROM github_event WHERE username = ? " +
+            "ORDER BY id DESC LIMIT ?", limit, username, limit);
+    }
+
+    /**
+     * Like {@link #findRecent}, keeping only events created at or after {@code sinceEpochSecond}.
+     */
+    public EventBatch findSince(String username, long sinceEpochSecond, int limit) {
+        return query("SELECT id, type, created_at, repo_name, keywords FROM github_event WHERE username = ? " +
+            "AND created_at >= ? ORDER BY id DESC LIMIT ?", limit, username, sinceEpochSecond, limit);
+    }
+
+    private EventBatch query(String sql, int limit, Object... args) {
+        EventBatch.Builder builder = EventBatch.builder(Math.min(limit, 1024));
+        jdbcTemplate.query(sql, rs -> {
+            int createdAt = rs.getInt("created_at");
+            if (rs.wasNull()) createdAt = EventBatch.NO_TIMESTAMP;
+            builder.add(rs.getLong("id"), EventType.fromGithubName(rs.getString("type")), createdAt, rs.getString("repo_name"));
+            String keywords = rs.getString("keywords");
+            if (keywords != null) {
+                for (String keyword : keywords.split("\n")) builder.addKeyword(keyword);
+            }
+        }, args);
+        return builder.build();
+    }
+
+    /**
+     * @return the event's keyword occurrences joined by newlines, or null if it has none;
+     *         occurrences beyond the column size are dropped
+     */
+    private static String keywords(EventBatch events, int index) {
+        int start = events.getKeywordStart(index);
+        int end = events.getKeywordEnd(index);
+        if (start == end) return null;
+        StringBuilder joined = new StringBuilder();
+        for (int k = start; k < end; k++) {
+            String keyword = events.getKeyword(events.getKeywordIndex(k));
+            int length = joined.length() + (joined.length() > 0 ? 1 : 0) + keyword.length();
+            if (length > MAX_KEYWORDS_LENGTH) break;
+            if (joined.length() > 0) joined.append('\n');
+            joined.append(keyword);
+        }
+        return joined.length() > 0 ? joined.toString() : null;
+    }
+}
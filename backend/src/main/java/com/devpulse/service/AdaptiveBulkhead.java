@@ -0,0 +1,191 @@
+package com.devpulse.service;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how many asynchronous tasks of one kind run at once. Tasks over the limit wait
+ * in a short FIFO queue; once the queue is full, or a task has waited max-queue-wait,
+ * it fails fast with {@link ServiceOverloadedException} instead of piling up.
+ *
+ * <p>The limit adapts to the latency samples passed to {@link #observe}, following the
+ * gradient approach of Netflix's concurrency-limits: a short-term average latency is
+ * compared with a long-term one, and the limit shrinks as soon as recent samples get
+ * slower than the long-term baseline (with some tolerance), and grows by about its square
+ * root while they are not. Failed samples (timeouts, 5xx) cut the limit multiplicatively.
+ */
+public class AdaptiveBulkhead {
+
+    /** Recent samples may be this much slower than the baseline before the limit shrinks */
+    private static final double TOLERANCE = 1.5;
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double LONG_ALPHA = 2.0 / (600 + 1);
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final long maxQueueWaitMillis;
+    private final long retryAfterSeconds;
+    private final ScheduledExecutorService timer;
+
+    private double limit;
+    private int inFlight;
+    private final ArrayDeque<Waiter<?>> queue = new ArrayDeque<>();
+    private double shortLatency;
+    private double longLatency;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param retryAfterSeconds what rejected callers are told to wait before retrying
+     */
+    public AdaptiveBulkhead(String name, int initialLimit, int minLimit, int maxLimit,
+                            int maxQueued, long maxQueueWaitMillis, long retryAfterSeconds) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits for bulkhead " + name + ": " + minLimit + ".." + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(name + "-bulkhead-"));
+    }
+
+    /**
+     * Runs {@code task} now if under the limit, later if there is room in the queue, or
+     * not at all: the returned future then fails with {@link ServiceOverloadedException}.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<? extends CompletableFuture<T>> task) {
+        Waiter<T> waiter = new Waiter<>(task);
+        synchronized (this) {
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+            } else if (queue.size() < maxQueued) {
+                queue.add(waiter);
+                waiter.timeout = timer.schedule(() -> expire(waiter), maxQueueWaitMillis, TimeUnit.MILLISECONDS);
+                return waiter.result;
+            } else {
+                return reject(waiter);
+            }
+        }
+        run(waiter);
+        return waiter.result;
+    }
+
+    /**
+     * Feeds one latency sample of the protected resource into the limit.
+     *
+     * @param failed true for timeouts and server errors, which back the limit off
+     */
+    public synchronized void observe(long latencyNanos, boolean failed) {
+        if (failed) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+        double sample = latencyNanos;
+        shortLatency = shortLatency == 0 ? sample : shortLatency + (sample - shortLatency) * SHORT_ALPHA;
+        longLatency = longLatency == 0 ? sample : longLatency + (sample - longLatency) * LONG_ALPHA;
+        // After a slow period the baseline stays inflated for long; let it catch up faster
+        if (longLatency > 2 * shortLatency) longLatency *= 0.95;
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / shortLatency));
+        double target = limit * gradient;
+        // Only grow when the limit is actually being used, or it drifts up while idle
+        if (gradient == 1.0 && inFlight >= limit / 2) target += Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private <T> void run(Waiter<T> waiter) {
+        CompletableFuture<T> started;
+        try {
+            started = waiter.task.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            release();
+            if (error != null) waiter.result.completeExceptionally(error);
+            else waiter.result.complete(value);
+        });
+    }
+
+    /**
+     * Frees a slot and starts as many queued tasks as the current limit allows.
+     */
+    private void release() {
+        List<Waiter<?>> next = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            while (!queue.isEmpty() && inFlight < (int) limit) {
+                Waiter<?> waiter = queue.poll();
+                waiter.timeout.cancel(false);
+                inFlight++;
+                next.add(waiter);
+            }
+        }
+        for (Waiter<?> waiter : next) run(waiter);
+    }
+
+    private void expire(Waiter<?> waiter) {
+        boolean removed;
+        synchronized (this) {
+            removed = queue.remove(waiter);
+        }
+        if (removed) reject(waiter);
+    }
+
+    private <T> CompletableFuture<T> reject(Waiter<T> waiter) {
+        rejected.incrementAndGet();
+        waiter.result.completeExceptionally(new ServiceOverloadedException(
+            "Too many concurrent requests for " + name, retryAfterSeconds));
+        return waiter.result;
+    }
+
+    private static final class Waiter<T> {
+        final Supplier<? extends CompletableFuture<T>> task;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout;
+
+        Waiter(Supplier<? extends CompletableFuture<T>> task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.devpulse.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Analysis results per user, kept already encoded: the JSON bytes, a gzip variant and
+ * a strong ETag hashed from the JSON. Fresh entries (younger than
+ * analysis.responses.max-age-ms) are served, or answered with 304, without computing
+ * or serializing anything. A stale entry is recomputed; when the computation returns
+ * the very object encoded last time (e.g. a tracked user's warm analysis) or equal
+ * content, the entry keeps its encoding and ETag, so clients still get a 304.
+ * Content is compared, and the ETag hashed, without the {@link #VOLATILE_FIELDS}
+ * stamped on every computation, such as the report's analysisDate.
+ *
+ * <p>Total size is capped and the least recently used entries are evicted first.
+ */
+@Component
+public class AnalysisResponseCache {
+
+    /** Bodies below this size are not worth compressing */
+    private static final int MIN_GZIP_BYTES = 256;
+
+    /** Top-level fields that change on every computation without the content changing */
+    private static final Set<String> VOLATILE_FIELDS = Set.of("analysisDate");
+
+    private final ObjectMapper objectMapper;
+    private final long maxAgeMillis;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, EncodedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    @Autowired
+    public AnalysisResponseCache(ObjectMapper objectMapper,
+                                 @Value("${analysis.responses.max-age-ms:60000}") long maxAgeMillis,
+                                 @Value("${analysis.responses.max-bytes:16777216}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param kind    which result of the user, e.g. "analysis" or "report"
+     * @param compute produces the result when there is no fresh entry
+     */
+    public CompletableFuture<EncodedResponse> get(String kind, String username, Supplier<? extends CompletableFuture<?>> compute) {
+        String key = kind + ":" + AnalysisService.normalize(username);
+        EncodedResponse cached = entry(key);
+        if (cached != null && System.currentTimeMillis() - cached.getValidatedAt() < maxAgeMillis) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return compute.get().thenApply(result -> store(key, result));
+    }
+
+    /**
+     * The last encoded result, however old, for serving stale when it cannot be computed.
+     */
+    public EncodedResponse getStale(String kind, String username) {
+        return entry(kind + ":" + AnalysisService.normalize(username));
+    }
+
+    /**
+     * Drops every encoded result of the user, e.g. after their time zone changed.
+     */
+    public synchronized void invalidate(String username) {
+        String suffix = ":" + AnalysisService.normalize(username);
+        Iterator<Map.Entry<String, EncodedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, EncodedResponse> entry = it.next();
+            if (!entry.getKey().endsWith(suffix)) continue;
+            totalBytes -= entry.getValue().size();
+            it.remove();
+        }
+    }
+
+    private synchronized EncodedResponse entry(String key) {
+        return entries.get(key);
+    }
+
+    private EncodedResponse store(String key, Object result) {
+        EncodedResponse previous = entry(key);
+        EncodedResponse response;
+        if (previous != null && previous.source == result) {
+            response = previous.revalidated(result);
+        } else {
+            byte[] json = encode(result);
+            String etag = etag(fingerprint(result, json));
+            response = previous != null && previous.etag.equals(etag)
+                ? previous.revalidated(result)
+                : new EncodedResponse(json, gzip(json), etag, result);
+        }
+        put(key, response);
+        return response;
+    }
+
+    private synchronized void put(String key, EncodedResponse response) {
+        if (response.size() > maxBytes) return;
+        EncodedResponse previous = entries.put(key, response);
+        if (previous != null) totalBytes -= previous.size();
+        totalBytes += response.size();
+
+        Iterator<Map.Entry<String, EncodedResponse>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+
+    private byte[] encode(Object result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The bytes the ETag is hashed from: the JSON without the volatile fields, so an
+     * unchanged report keeps its ETag (and its first analysisDate) across recomputes.
+     */
+    private byte[] fingerprint(Object result, byte[] json) {
+        if (!(result instanceof Map<?, ?> map) || Collections.disjoint(map.keySet(), VOLATILE_FIELDS)) return json;
+        Map<Object, Object> stable = new LinkedHashMap<>(map);
+        stable.keySet().removeAll(VOLATILE_FIELDS);
+        return encode(stable);
+    }
+
+    /**
+     * @return the gzipped body, or null when it would not be meaningfully smaller
+     */
+    private static byte[] gzip(byte[] json) {
+        if (json.length < MIN_GZIP_BYTES) return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.size() < json.length ? out.toByteArray() : null;
+    }
+
+    /**
+     * A strong ETag from the first 128 bits of the fingerprint's SHA-256.
+     */
+    private static String etag(byte[] fingerprint) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class EncodedResponse {
+        private final byte[] json;
+        private final byte[] gzip;
+        private final String etag;
+        /** The result these bytes encode, compared by identity to skip re-encoding */
+        private final Object source;
+        private final long validatedAt;
+
+        private EncodedResponse(byte[] json, byte[] gzip, String etag, Object source) {
+            this.json = json;
+            this.gzip = gzip;
+            this.etag = etag;
+            this.source = source;
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Same bytes and ETag, confirmed as current just now.
+         */
+        private EncodedResponse revalidated(Object source) {
+            return new EncodedResponse(json, gzip, etag, source);
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * @return the gzip-encoded JSON, or null if the body is sent uncompressed
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getValidatedAt() {
+            return validatedAt;
+        }
+
+        /**
+         * If-None-Match semantics: "*" or any listed tag equal to ours, weak or not.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) return false;
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals("*") || tag.equals(etag)) return true;
+            }
+            return false;
+        }
+
+        private long size() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.ActivityAccumulator;
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.UtcOffsetTable;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+@Service
+public class AnalysisService {
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisService.class);
+
+    private static final List<String> PROFILE_FIELDS = List.of(
+        "login", "name", "avatar_url", "html_url", "bio", "public_repos", "followers", "following", "created_at");
+
+    /**
+     * Analysis fields grouped into the parts sent by {@link #analyzeProgressively}, cheapest first.
+     */
+    private static final Map<String, List<String>> STREAM_PARTS = new LinkedHashMap<>();
+
+    static {
+        STREAM_PARTS.put("counts", List.of(
+            "username", "averageCommitsPerDay", "commitFrequency", "projectDiversity", "idleDays", "trend"));
+        STREAM_PARTS.put("activity", List.of(
+            "activityHours", "commitPatterns", "lateNightCommits", "weekendCommitRatio", "consecutiveDays"));
+        STREAM_PARTS.put("scores", List.of(
+            "recommendationScore", "productivityScore", "workLifeBalance", "advice", "suspectWords", "suspectWordCounts"));
+    }
+
+    private final GitHubService githubService;
+    private final EventStoreService eventStore;
+    private final UserTimeZoneService timeZones;
+    private final ScorePercentileService scorePercentiles;
+    private final ClusterRoutingService cluster;
+    private final Clock clock;
+    private final Timer accumulateTimer;
+    private final DistributionSummary eventsPerAnalysis;
+    private final SingleFlight<String, Map<String, Object>> analyses = new SingleFlight<>();
+    private final SingleFlight<String, Map<String, Object>> reports = new SingleFlight<>();
+
+    @Autowired
+    public AnalysisService(GitHubService githubService, EventStoreService eventStore, UserTimeZoneService timeZones,
+                           ScorePercentileService scorePercentiles, ClusterRoutingService cluster,
+                           MeterRegistry meterRegistry, Clock clock) {
+        this.githubService = githubService;
+        this.eventStore = eventStore;
+        this.timeZones = timeZones;
+        this.scorePercentiles = scorePercentiles;
+        this.cluster = cluster;
+        this.clock = clock;
+        this.accumulateTimer = Timer.builder("devpulse.analysis.accumulate")
+            .description("Time to fold a user's events into an activity snapshot")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.eventsPerAnalysis = DistributionSummary.builder("devpulse.analysis.events")
+            .description("Events analyzed per analysis")
+            .baseUnit("events")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Concurrent analyses of the same user (compared case-insensitively) share one
+     * GitHub fetch and one metric computation.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeUser(String username) {
+        return analyzeUser(username, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Only analyses at the same priority are shared, so an interactive request never
+     * waits on a background refresh or batch queued behind other users' calls.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeUser(String username, Priority priority) {
+        return analyses.execute(normalize(username) + ":" + priority, () -> eventStore.getUserEventsAsync(username, priority).thenApply(events -> {
+            logger.debug("Contributions received: {}", events.size());
+            ActivitySnapshot snapshot = snapshot(events, timeZones.getZone(username));
+            scorePercentiles.record(username, snapshot);
+            return buildAnalysis(username, snapshot);
+        }));
+    }
+
+    /**
+     * Analyzes many users with bounded parallelism, passing each result (or an error
+     * entry) to {@code sink} as soon as it is ready. Batch work runs at background
+     * priority so it never starves interactive requests of GitHub quota. With sharding
+     * enabled, each user is analyzed by the instance owning it.
+     */
+    public CompletableFuture<Void> analyzeBatch(List<String> usernames, int concurrency, Consumer<Map<String, Object>> sink) {
+        return new BatchAnalysis<Map<String, Object>>(usernames,
+            username -> cluster.route("analyze/{username}?background=true", username, false,
+                () -> analyzeUser(username, Priority.BACKGROUND)),
+            (username, analysis) -> sink.accept(analysis),
+            (username, error) -> sink.accept(BatchAnalysis.failure(username, error)))
+            .start(concurrency);
+    }
+
+    /**
+     * The user's activity snapshot, reading at most {@code maxNewEvents} events from GitHub.
+     */
+    public CompletableFuture<ActivitySnapshot> snapshotUser(String username, int maxNewEvents, Priority priority) {
+        return eventStore.getUserEventsAsync(username, maxNewEvents, priority)
+            .thenApply(events -> {
+                ActivitySnapshot snapshot = snapshot(events, timeZones.getZone(username));
+                scorePercentiles.record(username, snapshot);
+                return snapshot;
+            });
+    }
+
+    /**
+     * Streams an analysis in typed parts: "profile" as soon as the GitHub profile
+     * arrives, then "counts", "activity" and "scores" once events are analyzed. The
+     * returned future completes with the full analysis after every part was sent.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeProgressively(String username, BiConsumer<String, Object> onPart) {
+        CompletableFuture<Void> profile = githubService.getUserProfileAsync(username, Priority.INTERACTIVE)
+            .thenAccept(p -> onPart.accept("profile", select(p, PROFILE_FIELDS)));
+        CompletableFuture<Map<String, Object>> analysis = analyzeUser(username).thenApply(result -> {
+            STREAM_PARTS.forEach((part, fields) -> onPart.accept(part, select(result, fields)));
+            return result;
+        });
+        return profile.thenCombine(analysis, (done, result) -> result);
+    }
+
+    private static Map<String, Object> select(Map<String, Object> source, List<String> fields) {
+        Map<String, Object> selected = new HashMap<>();
+        for (String field : fields) {
+            if (source.containsKey(field)) selected.put(field, source.get(field));
+        }
+        return selected;
+    }
+
+    /**
+     * Repository count and events are requested concurrently, so the report takes as long
+     * as the slower of the two calls rather than their sum. Reports always run at
+     * interactive priority, so sharing them by user alone never slows a caller down.
+     */
+    public CompletableFuture<Map<String, Object>> getUserReport(String username) {
+        return reports.execute(normalize(username), () -> {
+            CompletableFuture<Integer> repoCount = githubService.countUserRepositoriesAsync(username, Priority.INTERACTIVE);
+            CompletableFuture<EventBatch> events = eventStore.getUserEventsAsync(username, Priority.INTERACTIVE);
+            return repoCount.thenCombine(events, (count, batch) -> buildReport(username, snapshot(batch, timeZones.getZone(username)), count));
+        });
+    }
+
+    /**
+     * Commit activity per day, week and month in the user's time zone, newest last, read
+     * from the user's rollup after syncing new events.
+     */
+    public CompletableFuture<Map<String, Object>> getUserTrends(String username, int days, int weeks, int months) {
+        return eventStore.getRollupAsync(username, Priority.INTERACTIVE).thenApply(rollup -> {
+            long now = clock.instant().getEpochSecond();
+            int[] weekly = rollup.getWeekly(now, weeks);
+            Map<String, Object> trends = new HashMap<>();
+            trends.put("username", username);
+            trends.put("dailyTrend", rollup.getDaily(now, days));
+            trends.put("weeklyTrend", weekly);
+            trends.put("monthlyTrend", rollup.getMonthly(now, months));
+            trends.put("activityLevel", activityLevel(weekly));
+            return trends;
+        });
+    }
+
+    private static String activityLevel(int[] weekly) {
+        long commits = 0;
+        for (int count : weekly) commits += count;
+        double perDay = weekly.length == 0 ? 0 : commits / (weekly.length * 7.0);
+        if (perDay > 3) return "high";
+        if (perDay > 1) return "medium";
+        return "low";
+    }
+
+    /**
+     * GitHub logins are case-insensitive.
+     */
+    static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public ActivitySnapshot snapshot(EventBatch events) {
+        return snapshot(events, UtcOffsetTable.UTC);
+    }
+
+    /**
+     * @param zone the developer's time zone, for hour and weekday buckets
+     */
+    public ActivitySnapshot snapshot(EventBatch events, UtcOffsetTable zone) {
+        eventsPerAnalysis.record(events.size());
+        long now = clock.instant().getEpochSecond();
+        return accumulateTimer.record(() -> new ActivityAccumulator(now, zone).addAll(events).snapshot());
+    }
+
+    public Map<String, Object> buildAnalysis(String username, ActivitySnapshot snapshot) {
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("username", username);
+        analysis.put("averageCommitsPerDay", snapshot.getAverageCommitsPerDay());
+        analysis.put("lateNightCommits", snapshot.getLateNightCommits());
+        analysis.put("weekendCommitRatio", snapshot.getWeekendCommitRatio());
+        analysis.put("consecutiveDays", snapshot.getConsecutiveDays());
+        analysis.put("idleDays", snapshot.getIdleDays());
+        Map<String, Integer> suspectWordCounts = snapshot.getSuspectWordCounts();
+        analysis.put("suspectWords", suspectWordCounts.keySet().toArray(new String[0]));
+        analysis.put("suspectWordCounts", suspectWordCounts);
+        analysis.put("trend", snapshot.getTrend());
+        analysis.put("recommendationScore", snapshot.getRecommendationScore());
+        analysis.put("advice", snapshot.getAdvice());
+
+        // New metrics
+        analysis.put("commitFrequency", snapshot.getCommitFrequency());
+        analysis.put("workLifeBalance", snapshot.getWorkLifeBalance());
+        analysis.put("productivityScore", snapshot.getProductivityScore());
+        analysis.put("commitPatterns", snapshot.getCommitPatterns());
+        analysis.put("activityHours", snapshot.getActivityHours());
+        analysis.put("projectDiversity", snapshot.getProjectDiversity());
+        return analysis;
+    }
+
+    public Map<String, Object> buildReport(String username, ActivitySnapshot snapshot, int repoCount) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("username", username);
+        report.put("totalCommits", snapshot.getTotalCommits());
+        report.put("totalRepositories", repoCount);
+        report.put("averageCommitsPerRepo", repoCount == 0 ? 0.0 : snapshot.getTotalCommits() / (double) repoCount);
+        report.put("analysisDate", LocalDateTime.now().toString());
+        return report;
+    }
+}
@@ -0,0 +1,121 @@
+package com.devpulse.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Runs an analysis over a list of usernames with at most {@code concurrency} analyses
+ * in flight, handing each result to {@code onResult} as soon as it completes. Failures
+ * go to {@code onError} instead of aborting the batch.
+ */
+class BatchAnalysis<T> {
+
+    private final Iterator<String> usernames;
+    private final Function<String, CompletableFuture<T>> analysis;
+    private final BiConsumer<String, T> onResult;
+    private final BiConsumer<String, Throwable> onError;
+    private final AtomicInteger remaining;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    BatchAnalysis(List<String> usernames, Function<String, CompletableFuture<T>> analysis,
+                  BiConsumer<String, T> onResult, BiConsumer<String, Throwable> onError) {
+        this.usernames = usernames.iterator();
+        this.analysis = analysis;
+        this.onResult = onResult;
+        this.onError = onError;
+        this.remaining = new AtomicInteger(usernames.size());
+    }
+
+    CompletableFuture<Void> start(int concurrency) {
+        if (remaining.get() == 0) {
+            done.complete(null);
+            return done;
+        }
+        for (int i = 0; i < concurrency; i++) {
+            launch();
+        }
+        return done;
+    }
+
+    /**
+     * Keeps one concurrency slot busy. Analyses that complete synchronously (e.g. from
+     * cache) are drained in this loop rather than by recursion.
+     */
+    private void launch() {
+        while (true) {
+            String username = next();
+            if (username == null) return;
+
+            CompletableFuture<T> future;
+            try {
+                future = analysis.apply(username);
+            } catch (RuntimeException e) {
+                // Reported like any failed analysis, or the slot would never be emitted
+                future = CompletableFuture.failedFuture(e);
+            }
+            if (!future.isDone()) {
+                future.whenComplete((result, error) -> {
+                    if (emit(username, result, error)) launch();
+                });
+                return;
+            }
+            T result = null;
+            Throwable error = null;
+            try {
+                result = future.join();
+            } catch (CompletionException e) {
+                error = e;
+            }
+            if (!emit(username, result, error)) return;
+        }
+    }
+
+    private String next() {
+        synchronized (usernames) {
+            return !done.isDone() && usernames.hasNext() ? usernames.next() : null;
+        }
+    }
+
+    /**
+     * @return false once the batch has ended, either complete or because a handler failed
+     */
+    private boolean emit(String username, T result, Throwable error) {
+        try {
+            if (error == null) {
+                onResult.accept(username, result);
+            } else {
+                onError.accept(username, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        } catch (RuntimeException e) {
+            done.completeExceptionally(e);
+            return false;
+        }
+        if (remaining.decrementAndGet() == 0) {
+            done.complete(null);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The error entry reported in place of a user's result.
+     */
+    static Map<String, Object> failure(String username, Throwable cause) {
+        Map<String, Object> failure = new HashMap<>();
+        failure.put("username", username);
+        if (cause instanceof GitHubRateLimitException rateLimited) {
+            failure.put("error", "rate_limited");
+            failure.put("retryAfter", rateLimited.getRetryAfterSeconds());
+        } else {
+            failure.put("error", "analysis_failed");
+        }
+        return failure;
+    }
+}
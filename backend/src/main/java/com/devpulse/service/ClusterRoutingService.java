@@ -0,0 +1,361 @@
+package com.devpulse.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Username-affinity sharding across DevPulse instances. The instances listed in
+ * analysis.cluster.peers form a {@link HashRing}; each user belongs to one of them, and
+ * only that instance fetches, stores and keeps warm the user's GitHub data. Other
+ * instances forward every per-user request to the owner and return its answer, so the
+ * GitHub quota is spent once per user cluster-wide; changes to a user's state, such as
+ * their time zone, are sent to the owner as well.
+ *
+ * <p>Forwarded requests carry {@link #FORWARDED_HEADER} and are always computed where
+ * they land, so instances with different peer lists never bounce requests. When the
+ * owner fails the request is computed locally instead; an owner that cannot be reached
+ * or times out is also skipped for analysis.cluster.peer-retry-ms. 503s (the owner is
+ * overloaded or out of quota) are passed on as such.
+ *
+ * <p>Disabled unless analysis.cluster.self is one of the peers.
+ */
+@Service
+public class ClusterRoutingService {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRoutingService.class);
+
+    public static final String FORWARDED_HEADER = "X-DevPulse-Forwarded";
+
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String self;
+    private final HashRing ring;
+    private final Duration timeout;
+    private final long peerRetryMillis;
+    private final HttpClient client;
+
+    /** Peers that recently failed, with the time they may be tried again */
+    private final ConcurrentHashMap<String, Long> downUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClusterRoutingService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${analysis.cluster.self:}") String self,
+                                 @Value("${analysis.cluster.peers:}") String[] peers,
+                                 @Value("${analysis.cluster.virtual-nodes:128}") int virtualNodes,
+                                 @Value("${analysis.cluster.timeout-ms:15000}") long timeoutMillis,
+                                 @Value("${analysis.cluster.peer-retry-ms:30000}") long peerRetryMillis) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.self = baseUrl(self);
+        List<String> nodes = new ArrayList<>();
+        for (String peer : peers) {
+            if (!peer.isBlank()) nodes.add(baseUrl(peer));
+        }
+        if (!nodes.isEmpty() && !nodes.contains(this.self)) {
+            logger.warn("analysis.cluster.self ({}) is not one of analysis.cluster.peers {}; sharding disabled", self, nodes);
+            nodes.clear();
+        }
+        this.ring = new HashRing(nodes, virtualNodes);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.peerRetryMillis = peerRetryMillis;
+        this.client = nodes.size() > 1
+            ? HttpClient.newBuilder().connectTimeout(Duration.ofMillis(Math.min(timeoutMillis, 2000))).build()
+            : null;
+        if (client != null) logger.info("Sharding users across {} instances, this one is {}", nodes.size(), this.self);
+    }
+
+    public boolean isEnabled() {
+        return client != null;
+    }
+
+    /**
+     * @return the instance owning {@code username}, this one when sharding is disabled
+     */
+    public String ownerOf(String username) {
+        return isEnabled() ? ring.owner(AnalysisService.normalize(username)) : self;
+    }
+
+    /**
+     * Whether this instance owns {@code username}, which it always does when sharding is
+     * disabled.
+     */
+    public boolean owns(String username) {
+        return ownerOf(username).equals(self);
+    }
+
+    /**
+     * The user's result for {@code path} (e.g. "analyze/{username}", with the user filled
+     * in): computed here when this instance owns the user, the request was forwarded
+     * already or the owner is down; fetched from the owner otherwise.
+     *
+     * @param forwarded whether this request came from another instance
+     */
+    public CompletableFuture<Map<String, Object>> route(String path, String username, boolean forwarded,
+                                                         Supplier<CompletableFuture<Map<String, Object>>> local) {
+        String owner = remoteOwner(username, forwarded);
+        if (owner == null) return local.get();
+        HttpRequest request = request(owner, path, username)
+            .header(HttpHeaders.ACCEPT, "application/json")
+            .GET()
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> parse(checked(owner, response).body()))
+            .handle((analysis, error) -> error == null
+                ? forwarded(owner, analysis)
+                : fallback(owner, username, error, local))
+            .thenCompose(result -> result);
+    }
+
+    /**
+     * Server-Sent Events variant of {@link #route}: the owner's events are passed to
+     * {@code listener} (name and parsed data) as they arrive. Falls back to {@code local}
+     * only while no event has been relayed; a stream that breaks later fails.
+     */
+    public CompletableFuture<Void> routeEvents(String path, String username, boolean forwarded,
+                                               BiConsumer<String, Object> listener,
+                                               Supplier<CompletableFuture<Void>> local) {
+        String owner = remoteOwner(username, forwarded);
+        if (owner == null) return local.get();
+        EventRelay relay = new EventRelay(listener);
+        HttpRequest request = request(owner, path, username)
+            .header(HttpHeaders.ACCEPT, "text/event-stream")
+            .GET()
+            .build();
+        HttpResponse.BodyHandler<Void> handler = info -> info.statusCode() == 200
+            ? HttpResponse.BodySubscribers.fromLineSubscriber(relay)
+            : HttpResponse.BodySubscribers.discarding();
+        return client.sendAsync(request, handler)
+            .thenApply(response -> {
+                checked(owner, response);
+                if (relay.failure != null) throw relay.failure;
+                return (Void) null;
+            })
+            .handle((done, error) -> {
+                if (error == null) return forwarded(owner, done);
+                if (relay.started) return CompletableFuture.<Void>failedFuture(unwrap(error));
+                return fallback(owner, username, error, local);
+            })
+            .thenCompose(result -> result);
+    }
+
+    /**
+     * Sends a change to the user's state (e.g. their time zone) to the owner, so the
+     * instance computing the user's analyses sees it; callers also apply it locally, for
+     * the analyses they compute while the owner is down. Unlike reads, a write the owner
+     * cannot take fails with {@link ServiceOverloadedException}, for the client to retry.
+     * A 404 (nothing to remove) or 507 (no room for it) is the owner's answer to the
+     * change and is returned as such.
+     *
+     * @return the owner's status code, or 0 when there was nothing to forward
+     */
+    public CompletableFuture<Integer> replicate(String method, String path, String username, boolean forwarded) {
+        if (!isEnabled() || forwarded) return CompletableFuture.completedFuture(0);
+        String owner = ownerOf(username);
+        if (owner.equals(self)) return CompletableFuture.completedFuture(0);
+        Long retryAt = downUntil.get(owner);
+        long now = System.currentTimeMillis();
+        if (retryAt != null && now < retryAt) {
+            return CompletableFuture.failedFuture(
+                new ServiceOverloadedException("Owner " + owner + " is unreachable", (retryAt - now) / 1000));
+        }
+        HttpRequest request = request(owner, path, username)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .thenApply(response -> response.statusCode() == 404 || response.statusCode() == 507
+                ? response.statusCode()
+                : checked(owner, response).statusCode())
+            .handle((status, error) -> {
+                if (error == null) return forwarded(owner, status);
+                Throwable cause = unwrap(error);
+                if (cause instanceof IOException) {
+                    logger.warn("Peer {} failed for user {}: {}", owner, username, cause.toString());
+                    downUntil.put(owner, System.currentTimeMillis() + peerRetryMillis);
+                    cause = new ServiceOverloadedException("Owner " + owner + " is unreachable", peerRetryMillis / 1000);
+                }
+                return CompletableFuture.<Integer>failedFuture(cause);
+            })
+            .thenCompose(result -> result);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("self", self);
+        stats.put("peers", ring.getNodes());
+        List<String> down = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        downUntil.forEach((peer, until) -> {
+            if (now < until) down.add(peer);
+        });
+        stats.put("downPeers", down);
+        return stats;
+    }
+
+    /**
+     * The owner to forward a request for {@code username} to, or null to serve it here.
+     */
+    private String remoteOwner(String username, boolean forwarded) {
+        if (!isEnabled() || forwarded) return null;
+        String owner = ownerOf(username);
+        if (owner.equals(self)) {
+            count("local");
+            return null;
+        }
+        Long retryAt = downUntil.get(owner);
+        if (retryAt != null && System.currentTimeMillis() < retryAt) {
+            count("fallback");
+            return null;
+        }
+        return owner;
+    }
+
+    private HttpRequest.Builder request(String owner, String path, String username) {
+        String user = URLEncoder.encode(username, StandardCharsets.UTF_8).replace("+", "%20");
+        return HttpRequest.newBuilder(URI.create(owner + "/api/" + path.replace("{username}", user)))
+            .timeout(timeout)
+            .header(FORWARDED_HEADER, self);
+    }
+
+    /**
+     * Fails on anything but a 2xx; a 5xx as overload, to be passed on.
+     */
+    private static <T> HttpResponse<T> checked(String owner, HttpResponse<T> response) {
+        int status = response.statusCode();
+        if (status >= 500) {
+            long retryAfter = response.headers().firstValueAsLong(HttpHeaders.RETRY_AFTER).orElse(1);
+            throw new ServiceOverloadedException("Owner " + owner + " is unavailable (" + status + ")", retryAfter);
+        }
+        if (status / 100 != 2) throw new IllegalStateException("Owner " + owner + " answered " + status);
+        return response;
+    }
+
+    private <T> CompletableFuture<T> forwarded(String owner, T result) {
+        downUntil.remove(owner);
+        count("forwarded");
+        return CompletableFuture.completedFuture(result);
+    }
+
+    private <T> CompletableFuture<T> fallback(String owner, String username, Throwable error, Supplier<CompletableFuture<T>> local) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof ServiceOverloadedException) {
+            count("forwarded");
+            return CompletableFuture.failedFuture(cause);
+        }
+        logger.warn("Peer {} failed for user {}, computing locally: {}", owner, username, cause.toString());
+        if (cause instanceof IOException) downUntil.put(owner, System.currentTimeMillis() + peerRetryMillis);
+        count("fallback");
+        return local.get();
+    }
+
+    private Map<String, Object> parse(byte[] body) {
+        try {
+            return objectMapper.readValue(body, MAP);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("devpulse.cluster.requests").tag("result", result).register(meterRegistry).increment();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String baseUrl(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * Parses the owner's event stream ("event:" and "data:" lines, blank line between
+     * events) and hands each event to the listener. Events are dropped after the listener
+     * fails (e.g. the client went away), so the stream is still drained and completes.
+     */
+    private final class EventRelay implements Flow.Subscriber<String> {
+        private final BiConsumer<String, Object> listener;
+        private final StringBuilder data = new StringBuilder();
+        private String name;
+        private volatile boolean started;
+        private volatile RuntimeException failure;
+
+        private EventRelay(BiConsumer<String, Object> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+            } else if (line.startsWith("event:")) {
+                name = value(line, 6);
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) data.append('\n');
+                data.append(value(line, 5));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            dispatch();
+        }
+
+        private void dispatch() {
+            if (data.length() > 0 && failure == null) {
+                started = true;
+                try {
+                    listener.accept(name != null ? name : "message", objectMapper.readValue(data.toString(), Object.class));
+                } catch (IOException e) {
+                    failure = new UncheckedIOException(e);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            data.setLength(0);
+            name = null;
+        }
+
+        private static String value(String line, int start) {
+            return line.startsWith(" ", start) ? line.substring(start + 1) : line.substring(start);
+        }
+    }
+}
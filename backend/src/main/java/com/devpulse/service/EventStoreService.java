@@ -0,0 +1,195 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.ActivityRollup;
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.Timestamps;
+import com.devpulse.analysis.UtcOffsetTable;
+import com.devpulse.repository.EventRepository;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps a local copy of each analyzed user's events. A refresh asks GitHub only for
+ * events newer than the last stored one, so history keeps growing past the ~90 days /
+ * 300 events the events API exposes. Analyses read only the last
+ * {@link ActivitySnapshot#WINDOW_DAYS} days of it, the period their metrics assume.
+ *
+ * <p>Newly ingested events are also folded into a per-user {@link ActivityRollup},
+ * which serves trend windows without reading the stored events back. Rollups are kept
+ * for the analysis.store.max-rollups most recently used users and bucketed in each
+ * user's time zone; an evicted rollup, or one built for a zone since changed, is rebuilt
+ * from the stored events.
+ */
+@Service
+public class EventStoreService {
+    private static final Logger logger = LoggerFactory.getLogger(EventStoreService.class);
+
+    private final GitHubService githubService;
+    private final EventRepository eventRepository;
+    private final UserTimeZoneService timeZones;
+    private final Clock clock;
+    private final SingleFlight<String, EventBatch> syncs = new SingleFlight<>();
+    /** Striped by user: syncs of one user store their events, and rollups are built, one at a time */
+    private final Object[] storeLocks = new Object[64];
+    /** In access order, least recently used first; guarded by itself */
+    private final Map<String, ActivityRollup> rollups = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ActivityRollup> eldest) {
+            return size() > maxRollups;
+        }
+    };
+
+    @Value("${analysis.store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analysis.store.max-events:10000}")
+    private int maxEvents;
+
+    @Value("${analysis.store.max-rollups:10000}")
+    private int maxRollups;
+
+    @Autowired
+    public EventStoreService(GitHubService githubService, EventRepository eventRepository, UserTimeZoneService timeZones,
+                             Clock clock) {
+        this.githubService = githubService;
+        this.eventRepository = eventRepository;
+        this.timeZones = timeZones;
+        this.clock = clock;
+        for (int i = 0; i < storeLocks.length; i++) storeLocks[i] = new Object();
+    }
+
+    /**
+     * Syncs the user's new events from GitHub into the store, then returns the stored
+     * events of the analysis window, newest first and at most analysis.store.max-events.
+     * Falls back to a plain GitHub fetch, cut to the same window, when the store is
+     * disabled.
+     */
+    public CompletableFuture<EventBatch> getUserEventsAsync(String username, Priority priority) {
+        return getUserEventsAsync(username, Integer.MAX_VALUE, priority);
+    }
+
+    /**
+     * @param maxNewEvents how many events to read from GitHub at most, to bound the calls
+     *                     spent on users with no or little stored history. When the user
+     *                     has more new events than that, the ones read are analyzed from
+     *                     memory and not stored; see {@link #isComplete}.
+     */
+    public CompletableFuture<EventBatch> getUserEventsAsync(String username, int maxNewEvents, Priority priority) {
+        String key = AnalysisService.normalize(username);
+        if (!enabled) {
+            return githubService.getUserEventsAsync(username, maxNewEvents, priority).thenApply(events -> {
+                if (isComplete(events, maxNewEvents)) rollup(key).ingest(events);
+                return events.createdSince(windowStart());
+            });
+        }
+        return sync(username, maxNewEvents, priority).thenApply(fresh -> isComplete(fresh, maxNewEvents)
+            ? eventRepository.findSince(key, windowStart(), maxEvents)
+            : fresh.createdSince(windowStart()));
+    }
+
+    /**
+     * Syncs the user's new events and returns the user's up-to-date rollup.
+     */
+    public CompletableFuture<ActivityRollup> getRollupAsync(String username, Priority priority) {
+        String key = AnalysisService.normalize(username);
+        if (!enabled) {
+            return githubService.getUserEventsAsync(username, priority).thenApply(events -> rollup(key).ingest(events));
+        }
+        return sync(username, Integer.MAX_VALUE, priority).thenApply(fresh -> rollup(key));
+    }
+
+    /**
+     * Concurrent syncs share one GitHub read only when they ask for the same limit at the
+     * same priority, so an unlimited or interactive caller never gets a limited read, or
+     * waits at background priority. The events read are stored only if the sync is
+     * complete.
+     *
+     * @return the events newer than the stored ones, as read from GitHub
+     */
+    private CompletableFuture<EventBatch> sync(String username, int maxNewEvents, Priority priority) {
+        String key = AnalysisService.normalize(username);
+        return syncs.execute(key + ":" + maxNewEvents + ":" + priority, () -> {
+            long latestId = eventRepository.findLatestEventId(key);
+            return githubService.getUserEventsSinceAsync(username, latestId, maxNewEvents, priority).thenApply(fresh -> {
+                if (!isComplete(fresh, maxNewEvents)) {
+                    logger.debug("Not storing {} new events for {}: more than the limit of {}", fresh.size(), key, maxNewEvents);
+                    return fresh;
+                }
+                store(key, fresh);
+                logger.debug("Stored {} new events for {}", fresh.size(), key);
+                return fresh;
+            });
+        });
+    }
+
+    /**
+     * Two syncs of one user may overlap and read the same events; storing them one at a
+     * time keeps the inserts from racing on the same ids. The rollup ingests each sync's
+     * events after they are stored, and every sync reads all events above the newest
+     * stored id, so an earlier-started sync finishing last only offers events the rollup
+     * already has.
+     */
+    private void store(String key, EventBatch fresh) {
+        synchronized (storeLock(key)) {
+            eventRepository.saveAll(key, fresh);
+            rollup(key).ingest(fresh);
+        }
+    }
+
+    /**
+     * Whether a read limited to {@code maxNewEvents} got every new event, stopping at a
+     * stored event or at the end of the user's history rather than at the limit. Storing
+     * (or rolling up) an incomplete read would leave a gap below it that later syncs,
+     * which only ask for events above the newest stored id, never fill.
+     */
+    private static boolean isComplete(EventBatch fresh, int maxNewEvents) {
+        return maxNewEvents == Integer.MAX_VALUE || fresh.size() < maxNewEvents;
+    }
+
+    private long windowStart() {
+        return clock.instant().getEpochSecond() - ActivitySnapshot.WINDOW_DAYS * Timestamps.SECONDS_PER_DAY;
+    }
+
+    private Object storeLock(String key) {
+        return storeLocks[Math.floorMod(key.hashCode(), storeLocks.length)];
+    }
+
+    /**
+     * The user's rollup in the user's current time zone, built from the stored events
+     * when there is none. It is built under the user's store lock, so no sync stores
+     * events between the read and the rollup becoming visible, while other users' rollups
+     * stay available.
+     */
+    private ActivityRollup rollup(String key) {
+        UtcOffsetTable zone = timeZones.getZone(key);
+        ActivityRollup rollup = cachedRollup(key, zone);
+        if (rollup != null) return rollup;
+        synchronized (storeLock(key)) {
+            rollup = cachedRollup(key, zone);
+            if (rollup == null) {
+                rollup = new ActivityRollup(zone);
+                if (enabled) rollup.ingest(eventRepository.findRecent(key, Integer.MAX_VALUE));
+                synchronized (rollups) {
+                    rollups.put(key, rollup);
+                }
+            }
+            return rollup;
+        }
+    }
+
+    private ActivityRollup cachedRollup(String key, UtcOffsetTable zone) {
+        synchronized (rollups) {
+            ActivityRollup rollup = rollups.get(key);
+            return rollup != null && rollup.getZone().getZoneId().equals(zone.getZoneId()) ? rollup : null;
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.devpulse.service;
+
+import com.devpulse.config.GitHubConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Gate for every outgoing GitHub call. Calls are queued by priority and released by a
+ * token bucket whose refill rate follows the quota reported in X-RateLimit-* headers, so
+ * the remaining quota is spread over the window instead of burnt in a burst.
+ *
+ * <p>Background and refresh calls are shed once the remaining quota drops below a reserve
+ * kept for user-facing requests; refreshes of tracked users queue behind everything else.
+ * Calls are counted per priority, so callers on a budget can charge what they spent. Primary (403 with no quota left) and secondary (429, or 403 with
+ * Retry-After) rate-limit responses are retried with jittered backoff.
+ */
+@Component
+public class GitHubCallScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(GitHubCallScheduler.class);
+
+    private static final int DEFAULT_LIMIT = 5000;
+    private static final double MIN_REFILL_PER_SECOND = 1.0;
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND,
+        /** Keeping tracked users warm; never ahead of a batch or organization analysis */
+        REFRESH
+    }
+
+    private final ExecutorService workers;
+    private final Semaphore workerPermits;
+    private final ScheduledExecutorService retryTimer =
+        Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("github-retry-"));
+    private final PriorityBlockingQueue<Call<?>> queue = new PriorityBlockingQueue<>();
+    /** Queued calls per priority, by ordinal; counting the queue itself is O(n) */
+    private final AtomicInteger[] queued = new AtomicInteger[Priority.values().length];
+    /** Calls sent to GitHub per priority, by ordinal, retries included */
+    private final AtomicLong[] calls = new AtomicLong[Priority.values().length];
+    private final AtomicLong sequence = new AtomicLong();
+    private Thread dispatcher;
+
+    private final double burst;
+    private final double backgroundReserve;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxInteractiveWaitMillis;
+    private final int maxQueuedBackground;
+
+    private double tokens;
+    private double refillPerSecond = DEFAULT_LIMIT / 3600.0;
+    private long lastRefillNanos = System.nanoTime();
+
+    private volatile int limit = -1;
+    private volatile int remaining = -1;
+    private volatile long resetEpochSecond;
+
+    private final AtomicLong shed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    @Autowired
+    public GitHubCallScheduler(ExecutorService githubExecutor,
+                               GitHubConfig githubConfig,
+                               @Value("${github.rate-limit.burst:20}") int burst,
+                               @Value("${github.rate-limit.background-reserve:0.2}") double backgroundReserve,
+                               @Value("${github.rate-limit.max-retries:3}") int maxRetries,
+                               @Value("${github.rate-limit.base-backoff-ms:1000}") long baseBackoffMillis,
+                               @Value("${github.rate-limit.max-interactive-wait-ms:10000}") long maxInteractiveWaitMillis,
+                               @Value("${github.rate-limit.max-queued-background:1000}") int maxQueuedBackground) {
+        this.workers = githubExecutor;
+        this.workerPermits = new Semaphore(githubConfig.getFetchThreads());
+        this.burst = burst;
+        this.tokens = burst;
+        this.backgroundReserve = backgroundReserve;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxInteractiveWaitMillis = maxInteractiveWaitMillis;
+        this.maxQueuedBackground = maxQueuedBackground;
+        for (int i = 0; i < queued.length; i++) {
+            queued[i] = new AtomicInteger();
+            calls[i] = new AtomicLong();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatchLoop, "github-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.interrupt();
+        retryTimer.shutdownNow();
+    }
+
+    public <T> CompletableFuture<T> submit(Priority priority, Supplier<T> call) {
+        Call<T> scheduled = new Call<>(priority, sequence.getAndIncrement(), call);
+        if (priority != Priority.INTERACTIVE && queuedCount(Priority.BACKGROUND) + queuedCount(Priority.REFRESH) >= maxQueuedBackground) {
+            shed.incrementAndGet();
+            scheduled.future.completeExceptionally(new GitHubRateLimitException("GitHub background queue is full", 1));
+            return scheduled.future;
+        }
+        enqueue(scheduled);
+        return scheduled.future;
+    }
+
+    /**
+     * Updates the known quota from a GitHub response and retunes the token refill rate
+     * so the remaining calls last until the window resets.
+     */
+    public void observe(HttpHeaders headers) {
+        if (headers == null) return;
+        String remainingHeader = headers.getFirst("X-RateLimit-Remaining");
+        String resetHeader = headers.getFirst("X-RateLimit-Reset");
+        String limitHeader = headers.getFirst("X-RateLimit-Limit");
+        if (remainingHeader == null || resetHeader == null) return;
+
+        try {
+            remaining = Integer.parseInt(remainingHeader);
+            resetEpochSecond = Long.parseLong(resetHeader);
+            if (limitHeader != null) limit = Integer.parseInt(limitHeader);
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring malformed rate-limit headers: {}", e.getMessage());
+            return;
+        }
+
+        long secondsLeft = Math.max(1, resetEpochSecond - nowEpochSecond());
+        synchronized (this) {
+            refill();
+            refillPerSecond = Math.max(MIN_REFILL_PER_SECOND, remaining / (double) secondsLeft);
+        }
+    }
+
+    /**
+     * The last quota seen from GitHub as X-RateLimit-* headers, empty before the first call.
+     */
+    public HttpHeaders getRateLimitHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (remaining < 0) return headers;
+        if (limit >= 0) headers.set("X-RateLimit-Limit", String.valueOf(limit));
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(resetEpochSecond));
+        return headers;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queuedInteractive", queuedCount(Priority.INTERACTIVE));
+        stats.put("queuedBackground", queuedCount(Priority.BACKGROUND));
+        stats.put("queuedRefresh", queuedCount(Priority.REFRESH));
+        stats.put("refreshCalls", getCallCount(Priority.REFRESH));
+        stats.put("limit", limit);
+        stats.put("remaining", remaining);
+        stats.put("resetEpochSecond", resetEpochSecond);
+        stats.put("shed", shed.get());
+        stats.put("retries", retries.get());
+        synchronized (this) {
+            refill();
+            stats.put("tokens", tokens);
+            stats.put("refillPerSecond", refillPerSecond);
+        }
+        return stats;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return when the current quota window resets, in epoch seconds, or 0 before the first call
+     */
+    public long getResetEpochSecond() {
+        return resetEpochSecond;
+    }
+
+    public long getShedCount() {
+        return shed.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public int queuedCount(Priority priority) {
+        return queued[priority.ordinal()].get();
+    }
+
+    /**
+     * @return calls sent to GitHub at the priority since startup, each retry counted again
+     */
+    public long getCallCount(Priority priority) {
+        return calls[priority.ordinal()].get();
+    }
+
+    private void enqueue(Call<?> call) {
+        queued[call.priority.ordinal()].incrementAndGet();
+        queue.add(call);
+    }
+
+    private Call<?> dequeued(Call<?> call) {
+        queued[call.priority.ordinal()].decrementAndGet();
+        return call;
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                workerPermits.acquire();
+                Call<?> call = dequeued(queue.take());
+                if (reject(call)) {
+                    workerPermits.release();
+                    continue;
+                }
+                awaitToken();
+                // A more urgent call may have arrived while waiting for the token
+                Call<?> head = queue.peek();
+                if (head != null && head.compareTo(call) < 0) {
+                    enqueue(call);
+                    call = dequeued(queue.poll());
+                }
+                // Checked again: the swapped-in call was never checked, and the quota may
+                // have dropped during the wait
+                if (reject(call)) {
+                    refundToken();
+                    workerPermits.release();
+                    continue;
+                }
+                Call<?> next = call;
+                workers.execute(() -> run(next));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fails the call up front when the quota cannot serve it.
+     */
+    private boolean reject(Call<?> call) {
+        long retryAfter = resetEpochSecond - nowEpochSecond();
+        if (remaining == 0 && retryAfter > 0) {
+            shed.incrementAndGet();
+            call.future.completeExceptionally(new GitHubRateLimitException("GitHub rate limit exhausted", retryAfter));
+            return true;
+        }
+        if (call.priority != Priority.INTERACTIVE && limit > 0 && remaining >= 0 && remaining < limit * backgroundReserve) {
+            shed.incrementAndGet();
+            call.future.completeExceptionally(new GitHubRateLimitException("GitHub quota reserved for interactive requests", retryAfter));
+            return true;
+        }
+        return false;
+    }
+
+    private void awaitToken() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) ((1 - tokens) / refillPerSecond * 1_000_000_000L);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1_000_000L));
+        }
+    }
+
+    private synchronized void refundToken() {
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) / 1_000_000_000.0 * refillPerSecond);
+        lastRefillNanos = now;
+    }
+
+    private <T> void run(Call<T> call) {
+        calls[call.priority.ordinal()].incrementAndGet();
+        try {
+            call.future.complete(call.supplier.get());
+        } catch (HttpStatusCodeException e) {
+            if (!isRateLimited(e)) {
+                call.future.completeExceptionally(e);
+                return;
+            }
+            long delayMillis = backoffMillis(e, call.attempt);
+            boolean tooLong = call.priority == Priority.INTERACTIVE && delayMillis > maxInteractiveWaitMillis;
+            if (call.attempt >= maxRetries || tooLong) {
+                call.future.completeExceptionally(new GitHubRateLimitException(
+                    "GitHub rate limit reached", TimeUnit.MILLISECONDS.toSeconds(delayMillis), e));
+                return;
+            }
+            retries.incrementAndGet();
+            logger.debug("GitHub rate limited ({}), retrying in {} ms", e.getStatusCode(), delayMillis);
+            call.attempt++;
+            retryTimer.schedule(() -> enqueue(call), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            call.future.completeExceptionally(e);
+        } finally {
+            workerPermits.release();
+        }
+    }
+
+    private static boolean isRateLimited(HttpStatusCodeException e) {
+        int status = e.getStatusCode().value();
+        if (status == 429) return true;
+        if (status != 403) return false;
+        HttpHeaders headers = e.getResponseHeaders();
+        if (headers != null && ("0".equals(headers.getFirst("X-RateLimit-Remaining")) || headers.getFirst(HttpHeaders.RETRY_AFTER) != null)) {
+            return true;
+        }
+        return e.getResponseBodyAsString().toLowerCase().contains("rate limit");
+    }
+
+    /**
+     * Retry-After when GitHub sends it, the window reset when the primary quota is gone,
+     * otherwise exponential backoff with full jitter.
+     */
+    private long backoffMillis(HttpStatusCodeException e, int attempt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpHeaders headers = e.getResponseHeaders();
+        if (headers != null) {
+            String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null) {
+                try {
+                    return Long.parseLong(retryAfter.trim()) * 1000 + random.nextLong(1000);
+                } catch (NumberFormatException ignored) {
+                    // HTTP-date form; fall through to the other strategies
+                }
+            }
+            String reset = headers.getFirst("X-RateLimit-Reset");
+            if ("0".equals(headers.getFirst("X-RateLimit-Remaining")) && reset != null) {
+                try {
+                    return Math.max(0, Long.parseLong(reset) - nowEpochSecond()) * 1000 + random.nextLong(1000);
+                } catch (NumberFormatException ignored) {
+                    // fall through to exponential backoff
+                }
+            }
+        }
+        long ceiling = baseBackoffMillis << Math.min(attempt, 16);
+        return random.nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    private static long nowEpochSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static final class Call<T> implements Comparable<Call<?>> {
+        private final Priority priority;
+        private final long sequence;
+        private final Supplier<T> supplier;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private int attempt;
+
+        private Call(Priority priority, long sequence, Supplier<T> supplier) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public int compareTo(Call<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.devpulse.service;
+
+/**
+ * Thrown when a GitHub call cannot be made within the current rate-limit window, either
+ * because the quota is exhausted or because a low-priority call was shed to protect it.
+ */
+public class GitHubRateLimitException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public GitHubRateLimitException(String message, long retryAfterSeconds) {
+        this(message, retryAfterSeconds, null);
+    }
+
+    public GitHubRateLimitException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,128 @@
+package com.devpulse.service;
+
+import com.devpulse.service.GitHubResponseCache.CachedResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unparsed GitHub response bodies ready to be copied to a client. A single response is
+ * written as received; several pages of a JSON array are spliced into one array by
+ * dropping their outer brackets, so no page is ever deserialized.
+ */
+public class GitHubRawResponse {
+
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final List<Segment> segments = new ArrayList<>();
+    private final boolean array;
+    private final CachedResponse first;
+    private long contentLength;
+
+    private GitHubRawResponse(CachedResponse first, boolean array) {
+        this.first = first;
+        this.array = array;
+    }
+
+    public static GitHubRawResponse single(CachedResponse response) {
+        GitHubRawResponse raw = new GitHubRawResponse(response, false);
+        raw.add(response.getBody(), 0, response.getBody().length);
+        return raw;
+    }
+
+    /**
+     * Joins JSON array pages in order.
+     *
+     * @param ends per page, the byte offset just past the last element to keep, or -1 for all of them
+     */
+    public static GitHubRawResponse pages(List<CachedResponse> pages, int[] ends) {
+        if (pages.size() == 1 && ends[0] < 0) return single(pages.get(0));
+        GitHubRawResponse raw = new GitHubRawResponse(pages.get(0), true);
+        for (int i = 0; i < pages.size(); i++) {
+            byte[] body = pages.get(i).getBody();
+            int start = indexAfter(body, '[');
+            int end = ends[i] >= 0 ? ends[i] : lastIndexOf(body, ']');
+            if (start < 0 || end < 0) continue;
+            while (start < end && isWhitespace(body[start])) start++;
+            if (start < end) raw.add(body, start, end);
+        }
+        raw.contentLength += raw.segments.isEmpty() ? EMPTY_ARRAY.length : raw.segments.size() + 1;
+        return raw;
+    }
+
+    /**
+     * ETag of the upstream response, only meaningful when a single page was fetched.
+     */
+    public String getEtag() {
+        return array ? null : first.getEtag();
+    }
+
+    public String getLastModified() {
+        return array ? null : first.getLastModified();
+    }
+
+    /**
+     * The upstream Link header; spliced pages already contain every page, so they have none.
+     */
+    public String getLink() {
+        return array ? null : first.getLink();
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        if (!array) {
+            for (Segment segment : segments) out.write(segment.body, segment.start, segment.end - segment.start);
+            return;
+        }
+        if (segments.isEmpty()) {
+            out.write(EMPTY_ARRAY);
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < segments.size(); i++) {
+            if (i > 0) out.write(',');
+            Segment segment = segments.get(i);
+            out.write(segment.body, segment.start, segment.end - segment.start);
+        }
+        out.write(']');
+    }
+
+    private void add(byte[] body, int start, int end) {
+        segments.add(new Segment(body, start, end));
+        contentLength += end - start;
+    }
+
+    private static int indexAfter(byte[] body, char c) {
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == c) return i + 1;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] body, char c) {
+        for (int i = body.length - 1; i >= 0; i--) {
+            if (body[i] == c) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static final class Segment {
+        private final byte[] body;
+        private final int start;
+        private final int end;
+
+        private Segment(byte[] body, int start, int end) {
+            this.body = body;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.devpulse.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Raw GitHub response bodies keyed by URL, together with their ETag/Last-Modified
+ * validators. Entries younger than the TTL are served directly; older ones are
+ * revalidated with a conditional request. Total body size is capped and the least
+ * recently used entries are evicted first.
+ */
+@Component
+public class GitHubResponseCache {
+
+    private final long ttlMillis;
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public GitHubResponseCache(@Value("${github.cache.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${github.cache.max-bytes:33554432}") long maxBytes) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized CachedResponse get(String url) {
+        return entries.get(url);
+    }
+
+    public boolean isFresh(CachedResponse response) {
+        return System.currentTimeMillis() - response.getValidatedAt() < ttlMillis;
+    }
+
+    public synchronized void put(String url, CachedResponse response) {
+        if (response.getBody().length > maxBytes) return;
+        CachedResponse previous = entries.put(url, response);
+        if (previous != null) totalBytes -= previous.getBody().length;
+        totalBytes += response.getBody().length;
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().getBody().length;
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public void recordNotModified() {
+        notModified.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("notModified", notModified.get());
+        stats.put("evictions", evictions.get());
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes);
+        return stats;
+    }
+
+    public static class CachedResponse {
+        private final byte[] body;
+        private final String etag;
+        private final String lastModified;
+        private final String link;
+        private final long validatedAt;
+
+        public CachedResponse(byte[] body, String etag, String lastModified, String link) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.link = link;
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Same body and validators, marked as confirmed by the server just now (after a 304).
+         */
+        public CachedResponse revalidated() {
+            return new CachedResponse(body, etag, lastModified, link);
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * The pagination Link header, if the response had one.
+         */
+        public String getLink() {
+            return link;
+        }
+
+        public long getValidatedAt() {
+            return validatedAt;
+        }
+    }
+}
@@ -1,51 +1,419 @@
 package com.devpulse.service;
 
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.EventBatchParser;
+import com.devpulse.analysis.KeywordMatcher;
+import com.devpulse.config.GitHubConfig;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import com.devpulse.service.GitHubResponseCache.CachedResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class GitHubService {
 
-    private final RestTemplate githubRestTemplate;
-    private static final String GITHUB_API_BASE_URL = "https://api.github.com";
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {};
+
+    static final int PER_PAGE = 100;
+    /** GitHub user and organization names: letters, digits and hyphens, at most 39 */
+    public static final String LOGIN_REGEX = "[A-Za-z0-9-]{1,39}";
+    private static final Pattern LOGIN = Pattern.compile(LOGIN_REGEX);
+    private static final Pattern LAST_PAGE = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
+
+    /** Resolved on the first call, so startup does not build the HTTP client */
+    private final ObjectProvider<RestTemplate> githubRestTemplate;
+    private final GitHubResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final GitHubCallScheduler callScheduler;
+    private final GitHubConfig githubConfig;
+    private final MeterRegistry meterRegistry;
+    private final EventBatchParser eventParser;
+    private final String apiBaseUrl;
+    private final AdaptiveBulkhead githubBulkhead;
 
     @Autowired
-    public GitHubService(RestTemplate githubRestTemplate) {
+    public GitHubService(ObjectProvider<RestTemplate> githubRestTemplate, GitHubResponseCache responseCache, ObjectMapper objectMapper,
+                         GitHubCallScheduler callScheduler, GitHubConfig githubConfig, MeterRegistry meterRegistry,
+                         KeywordMatcher suspectWordMatcher, AdaptiveBulkhead githubBulkhead) {
         this.githubRestTemplate = githubRestTemplate;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.callScheduler = callScheduler;
+        this.githubConfig = githubConfig;
+        this.meterRegistry = meterRegistry;
+        List<String> eventFields = githubConfig.getEventFields();
+        if (!eventFields.contains(EventBatchParser.ID)) {
+            // The event store, incremental sync and trend rollups all order events by id
+            throw new IllegalStateException("github.events.fields must include \"id\", got " + eventFields);
+        }
+        this.eventParser = new EventBatchParser(objectMapper.getFactory(), eventFields, suspectWordMatcher);
+        this.apiBaseUrl = githubConfig.getApiBaseUrl();
+        this.githubBulkhead = githubBulkhead;
+    }
+
+    /**
+     * Whether {@code login} can be a GitHub user or organization name. Names are put into
+     * request URLs as they are, so anything else (slashes, query strings, URI template
+     * braces) must be rejected before reaching this service; the controllers do so with
+     * {@code @GitHubLogin}.
+     */
+    public static boolean isValidLogin(String login) {
+        return login != null && LOGIN.matcher(login).matches();
+    }
+
+    /**
+     * All pages of the user's repositories as one JSON array, copied from the upstream
+     * bodies without parsing them.
+     */
+    public CompletableFuture<GitHubRawResponse> getUserRepositoriesRawAsync(String username, Priority priority) {
+        String url = apiBaseUrl + "/users/" + username + "/repos?per_page=" + PER_PAGE;
+        return fetchPagesAsync(url, Integer.MAX_VALUE, priority, Function.identity())
+            .thenApply(pages -> GitHubRawResponse.pages(pages, arrayEnds(pages, Integer.MAX_VALUE)));
+    }
+
+    /**
+     * Counts the user's repositories from the first and last page only: the Link header
+     * names the last page, and the total is the pages before it times the page size plus
+     * the elements of the last page.
+     *
+     * <p>Assumes GitHub's offset paging, where every page but the last holds exactly the
+     * page size. The page size is taken from the first page as served, not from per_page,
+     * so a server capping per_page lower still counts right; a short page in the middle
+     * would not be noticed (counting it would take fetching every page).
+     */
+    public CompletableFuture<Integer> countUserRepositoriesAsync(String username, Priority priority) {
+        String url = apiBaseUrl + "/users/" + username + "/repos?per_page=" + PER_PAGE;
+        return fetchAsync(url, priority).thenCompose(first -> {
+            int lastPage = lastPage(first.getLink());
+            int pageSize = countElements(first.getBody());
+            if (lastPage <= 1) return CompletableFuture.completedFuture(pageSize);
+            return fetchAsync(url + "&page=" + lastPage, priority)
+                .thenApply(last -> (lastPage - 1) * pageSize + countElements(last.getBody()));
+        });
+    }
+
+    /**
+     * Logins of the organization's members visible to the token, up to {@code maxMembers}
+     * (and github.pagination.max-pages pages).
+     */
+    public CompletableFuture<List<String>> getOrganizationMembersAsync(String org, int maxMembers, Priority priority) {
+        String url = apiBaseUrl + "/orgs/" + org + "/members?per_page=" + PER_PAGE;
+        return fetchPagesAsync(url, maxMembers, priority, response -> parseLogins(response.getBody()))
+            .thenApply(pages -> {
+                List<String> logins = new ArrayList<>();
+                for (List<String> page : pages) logins.addAll(page);
+                return logins.size() > maxMembers ? new ArrayList<>(logins.subList(0, maxMembers)) : logins;
+            });
+    }
+
+    public CompletableFuture<Map<String, Object>> getUserProfileAsync(String username, Priority priority) {
+        return getUserProfileRawAsync(username, priority).thenApply(response -> parse(response.getBody(), MAP));
+    }
+
+    public CompletableFuture<CachedResponse> getUserProfileRawAsync(String username, Priority priority) {
+        return fetchAsync(apiBaseUrl + "/users/" + username, priority);
+    }
+
+    /**
+     * The user's public events, up to github.pagination.max-events, as one JSON array
+     * copied from the upstream bodies without parsing them.
+     */
+    public CompletableFuture<GitHubRawResponse> getUserContributionsRawAsync(String username, Priority priority) {
+        String url = apiBaseUrl + "/users/" + username + "/events?per_page=" + PER_PAGE;
+        int maxEvents = githubConfig.getMaxEvents();
+        return fetchPagesAsync(url, maxEvents, priority, Function.identity())
+            .thenApply(pages -> GitHubRawResponse.pages(pages, arrayEnds(pages, maxEvents)));
+    }
+
+    /**
+     * Fetches all pages of the user's public events, decoding each page straight into a
+     * columnar {@link EventBatch} as soon as it arrives; payloads are skipped unread.
+     */
+    public CompletableFuture<EventBatch> getUserEventsAsync(String username, Priority priority) {
+        return getUserEventsAsync(username, Integer.MAX_VALUE, priority);
+    }
+
+    /**
+     * Like {@link #getUserEventsAsync(String, Priority)}, reading at most {@code maxEvents}
+     * events (still capped by github.pagination.max-events).
+     */
+    public CompletableFuture<EventBatch> getUserEventsAsync(String username, int maxEvents, Priority priority) {
+        String url = apiBaseUrl + "/users/" + username + "/events?per_page=" + PER_PAGE;
+        int limit = Math.min(maxEvents, githubConfig.getMaxEvents());
+        return fetchPagesAsync(url, limit, priority, response -> parseEvents(response.getBody()))
+            .thenApply(pages -> pages.size() == 1 ? pages.get(0) : EventBatch.concat(pages, limit));
+    }
+
+    /**
+     * Fetches only the events newer than {@code sinceId}. Pages are read one at a time,
+     * newest first, and fetching stops at the first page holding an already known event.
+     */
+    public CompletableFuture<EventBatch> getUserEventsSinceAsync(String username, long sinceId, Priority priority) {
+        return getUserEventsSinceAsync(username, sinceId, Integer.MAX_VALUE, priority);
+    }
+
+    public CompletableFuture<EventBatch> getUserEventsSinceAsync(String username, long sinceId, int maxEvents, Priority priority) {
+        if (sinceId == EventBatch.NO_ID) return getUserEventsAsync(username, maxEvents, priority);
+        String url = apiBaseUrl + "/users/" + username + "/events?per_page=" + PER_PAGE;
+        int limit = Math.min(maxEvents, githubConfig.getMaxEvents());
+        return fetchNewerPagesAsync(url, 1, maxPages(limit), sinceId, priority, new ArrayList<>())
+            .thenApply(pages -> EventBatch.concat(pages, limit));
+    }
+
+    private CompletableFuture<List<EventBatch>> fetchNewerPagesAsync(String url, int page, int maxPages, long sinceId,
+                                                                     Priority priority, List<EventBatch> pages) {
+        return fetchAsync(page == 1 ? url : url + "&page=" + page, priority).thenCompose(response -> {
+            EventBatch batch = parseEvents(response.getBody());
+            EventBatch newer = batch.newerThan(sinceId);
+            if (!newer.isEmpty()) pages.add(newer);
+            if (newer.size() < batch.size() || page >= Math.min(lastPage(response.getLink()), maxPages)) {
+                return CompletableFuture.completedFuture(pages);
+            }
+            return fetchNewerPagesAsync(url, page + 1, maxPages, sinceId, priority, pages);
+        });
+    }
+
+    /**
+     * Reads the first page, then fetches the remaining pages named by its Link header
+     * concurrently, up to github.pagination.max-pages and {@code maxItems}. Each page is
+     * converted by {@code pageParser} on arrival; results are returned in page order.
+     * No pool thread ever waits on another page.
+     */
+    private <T> CompletableFuture<List<T>> fetchPagesAsync(String url, int maxItems, Priority priority, Function<CachedResponse, T> pageParser) {
+        int maxPages = maxPages(maxItems);
+        return fetchAsync(url, priority).thenCompose(first -> {
+            T firstPage = pageParser.apply(first);
+            int lastPage = Math.min(lastPage(first.getLink()), maxPages);
+
+            List<CompletableFuture<T>> remaining = new ArrayList<>();
+            for (int page = 2; page <= lastPage; page++) {
+                remaining.add(fetchAsync(url + "&page=" + page, priority).thenApply(pageParser));
+            }
+            return CompletableFuture.allOf(remaining.toArray(new CompletableFuture[0])).thenApply(done -> {
+                List<T> pages = new ArrayList<>(remaining.size() + 1);
+                pages.add(firstPage);
+                remaining.forEach(page -> pages.add(page.join()));
+                return pages;
+            });
+        });
+    }
+
+    private int maxPages(int maxItems) {
+        return Math.min(githubConfig.getMaxPages(), (int) Math.min(Integer.MAX_VALUE, ((long) maxItems + PER_PAGE - 1) / PER_PAGE));
+    }
+
+    private CompletableFuture<CachedResponse> fetchAsync(String url, Priority priority) {
+        CachedResponse cached = responseCache.get(url);
+        if (cached != null && responseCache.isFresh(cached)) {
+            responseCache.recordHit();
+            return CompletableFuture.completedFuture(cached);
+        }
+        return callScheduler.submit(priority, () -> fetch(url));
+    }
+
+    /**
+     * Returns the response for {@code url}, served from the response cache while fresh
+     * and revalidated with If-None-Match/If-Modified-Since once the TTL expires.
+     * A 304 does not count against GitHub's rate limit.
+     */
+    private CachedResponse fetch(String url) {
+        CachedResponse cached = responseCache.get(url);
+        if (cached != null && responseCache.isFresh(cached)) {
+            responseCache.recordHit();
+            return cached;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null) {
+            if (cached.getEtag() != null) headers.set(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+            if (cached.getLastModified() != null) headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+
+        String endpoint = endpoint(apiBaseUrl, url);
+        long start = System.nanoTime();
+        ResponseEntity<byte[]> response;
+        try {
+            response = githubRestTemplate.getObject().exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+            );
+        } catch (HttpStatusCodeException e) {
+            String status = String.valueOf(e.getStatusCode().value());
+            recordRequest(endpoint, status, start);
+            Counter.builder("devpulse.github.errors").tags("endpoint", endpoint, "status", status).register(meterRegistry).increment();
+            callScheduler.observe(e.getResponseHeaders());
+            throw e;
+        } catch (RestClientException e) {
+            recordRequest(endpoint, "IO_ERROR", start);
+            Counter.builder("devpulse.github.errors").tags("endpoint", endpoint, "status", "IO_ERROR").register(meterRegistry).increment();
+            throw e;
+        }
+        recordRequest(endpoint, String.valueOf(response.getStatusCode().value()), start);
+        callScheduler.observe(response.getHeaders());
+
+        if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            responseCache.recordNotModified();
+            CachedResponse revalidated = cached.revalidated();
+            responseCache.put(url, revalidated);
+            return revalidated;
+        }
+
+        responseCache.recordMiss();
+        byte[] body = response.getBody() != null ? response.getBody() : new byte[0];
+        HttpHeaders responseHeaders = response.getHeaders();
+        CachedResponse fetched = new CachedResponse(body, responseHeaders.getETag(),
+            responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED), responseHeaders.getFirst(HttpHeaders.LINK));
+        responseCache.put(url, fetched);
+        return fetched;
+    }
+
+    /**
+     * Records the call's latency, which also tunes the concurrency limit of the
+     * GitHub-bound endpoints: timeouts and 5xx responses back it off.
+     */
+    private void recordRequest(String endpoint, String status, long startNanos) {
+        long latency = System.nanoTime() - startNanos;
+        Timer.builder("devpulse.github.requests")
+            .description("Latency of GitHub API calls")
+            .tags("endpoint", endpoint, "status", status)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(latency, TimeUnit.NANOSECONDS);
+        githubBulkhead.observe(latency, status.equals("IO_ERROR") || status.startsWith("5"));
     }
 
-    public List<Map<String, Object>> getUserRepositories(String username) {
-        String url = GITHUB_API_BASE_URL + "/users/" + username + "/repos";
-        return githubRestTemplate.exchange(
-            url,
-            HttpMethod.GET,
-            null,
-            new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-        ).getBody();
-    }
-
-    public Map<String, Object> getUserProfile(String username) {
-        String url = GITHUB_API_BASE_URL + "/users/" + username;
-        return githubRestTemplate.exchange(
-            url,
-            HttpMethod.GET,
-            null,
-            new ParameterizedTypeReference<Map<String, Object>>() {}
-        ).getBody();
-    }
-
-    public List<Map<String, Object>> getUserContributions(String username) {
-        String url = GITHUB_API_BASE_URL + "/users/" + username + "/events";
-        return githubRestTemplate.exchange(
-            url,
-            HttpMethod.GET,
-            null,
-            new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-        ).getBody();
-    }
-} 
\ No newline at end of file
+    /**
+     * Low-cardinality name of the endpoint behind {@code url} ("users", "users/repos",
+     * "users/events"), used as a metric tag.
+     */
+    static String endpoint(String apiBaseUrl, String url) {
+        String path = url.startsWith(apiBaseUrl) ? url.substring(apiBaseUrl.length()) : url;
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        String[] segments = path.split("/");
+        if (segments.length > 3) return segments[1] + "/" + segments[3];
+        return segments.length > 1 ? segments[1] : "other";
+    }
+
+    private static int lastPage(String link) {
+        if (link == null) return 1;
+        Matcher matcher = LAST_PAGE.matcher(link);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    private <T> T parse(byte[] body, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new RestClientException("Invalid GitHub response body", e);
+        }
+    }
+
+    private EventBatch parseEvents(byte[] body) {
+        try {
+            return eventParser.parse(body);
+        } catch (IOException e) {
+            throw new RestClientException("Invalid GitHub response body", e);
+        }
+    }
+
+    /**
+     * Reads the {@code login} of each object of a JSON array body, skipping everything else.
+     */
+    private List<String> parseLogins(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            List<String> logins = new ArrayList<>(PER_PAGE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) return logins;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("login".equals(field) && value == JsonToken.VALUE_STRING) {
+                        logins.add(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return logins;
+        } catch (IOException e) {
+            throw new RestClientException("Invalid GitHub response body", e);
+        }
+    }
+
+    /**
+     * Counts the elements of a JSON array body without materializing them.
+     */
+    private int countElements(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) return 0;
+            int count = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new RestClientException("Invalid GitHub response body", e);
+        }
+    }
+
+    /**
+     * For each page, where to cut it so that at most {@code maxItems} elements are kept
+     * overall: -1 keeps the whole page, otherwise the byte offset after the last element
+     * kept. Pages are counted as they are, so short or capped pages are fine.
+     */
+    private int[] arrayEnds(List<CachedResponse> pages, int maxItems) {
+        int[] ends = new int[pages.size()];
+        Arrays.fill(ends, -1);
+        if (maxItems == Integer.MAX_VALUE) return ends;
+        int left = maxItems;
+        for (int i = 0; i < pages.size(); i++) {
+            try (JsonParser parser = objectMapper.getFactory().createParser(pages.get(i).getBody())) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) continue;
+                int end = (int) parser.currentLocation().getByteOffset();
+                int kept = 0;
+                JsonToken token = parser.nextToken();
+                while (kept < left && token != JsonToken.END_ARRAY && token != null) {
+                    parser.skipChildren();
+                    end = (int) parser.currentLocation().getByteOffset();
+                    kept++;
+                    token = parser.nextToken();
+                }
+                if (token != JsonToken.END_ARRAY && token != null) ends[i] = end;
+                left -= kept;
+            } catch (IOException e) {
+                throw new RestClientException("Invalid GitHub response body", e);
+            }
+        }
+        return ends;
+    }
+}
@@ -0,0 +1,54 @@
+package com.devpulse.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring: each node is placed at {@code virtualNodes} points, and a key
+ * belongs to the first node clockwise from the key's hash. Adding or removing a node
+ * only moves the keys next to its points. Every instance built from the same node list
+ * agrees on the owners, since hashing does not depend on the JVM.
+ */
+public class HashRing {
+
+    private final TreeMap<Long, String> points = new TreeMap<>();
+    private final List<String> nodes;
+
+    public HashRing(List<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) points.put(hash(node + "#" + i), node);
+        }
+    }
+
+    /**
+     * @return the node owning {@code key}, or null if the ring is empty
+     */
+    public String owner(String key) {
+        if (points.isEmpty()) return null;
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * First 64 bits of the key's MD5, which spreads similar names (user1, user2) evenly.
+     */
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) hash = hash << 8 | (digest[i] & 0xff);
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
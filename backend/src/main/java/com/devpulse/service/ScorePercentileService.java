@@ -0,0 +1,172 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.analysis.QuantileSketch;
+import com.devpulse.analysis.TeamActivity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribution of the scores of every analyzed user, kept as one {@link QuantileSketch}
+ * per score, so a user's score can be placed in the population ("top 10%") with bounded
+ * memory and a configurable rank error, however many users were analyzed.
+ *
+ * <p>The population is split into two generations of analysis.percentiles.generation-ms
+ * each: the current one and the previous one, so scores of users not analyzed for two
+ * generations age out. Each generation counts a user once, on their first analysis in
+ * it; users already counted are recognized by a Bloom filter rather than a set of names.
+ */
+@Service
+public class ScorePercentileService {
+
+    private static final List<String> SCORES = List.of(
+        TeamActivity.RECOMMENDATION_SCORE, TeamActivity.PRODUCTIVITY_SCORE, TeamActivity.WORK_LIFE_BALANCE);
+
+    private final double rankError;
+    private final long generationMillis;
+    private final int expectedUsers;
+
+    private Generation previous;
+    private Generation current;
+
+    public ScorePercentileService(@Value("${analysis.percentiles.rank-error:0.01}") double rankError,
+                                  @Value("${analysis.percentiles.generation-ms:604800000}") long generationMillis,
+                                  @Value("${analysis.percentiles.expected-users:100000}") int expectedUsers) {
+        this.rankError = rankError;
+        this.generationMillis = generationMillis;
+        this.expectedUsers = expectedUsers;
+        this.previous = new Generation(System.currentTimeMillis());
+        this.current = new Generation(System.currentTimeMillis());
+    }
+
+    /**
+     * Adds the user's scores to the population unless the user was already counted in
+     * the current generation.
+     */
+    public synchronized void record(String username, ActivitySnapshot snapshot) {
+        if (snapshot.isEmpty()) return;
+        rotate();
+        if (!current.seen.add(AnalysisService.normalize(username))) return;
+        current.scores.get(TeamActivity.RECOMMENDATION_SCORE).add(snapshot.getRecommendationScore());
+        current.scores.get(TeamActivity.PRODUCTIVITY_SCORE).add(snapshot.getProductivityScore());
+        current.scores.get(TeamActivity.WORK_LIFE_BALANCE).add(snapshot.getWorkLifeBalance());
+    }
+
+    /**
+     * For each score found in {@code analysis}, its value and its percentile among the
+     * analyzed users, e.g. {@code {"productivityScore": {"value": 72.5, "percentile": 91.3}}}.
+     */
+    public Map<String, Object> getPercentiles(String username, Map<String, Object> analysis) {
+        Map<String, QuantileSketch> population = population();
+        Map<String, Object> scores = new LinkedHashMap<>();
+        for (String score : SCORES) {
+            if (!(analysis.get(score) instanceof Number value)) continue;
+            Map<String, Object> placement = new HashMap<>();
+            placement.put("value", value);
+            placement.put("percentile", Math.round(population.get(score).getRank(value.doubleValue()) * 1000) / 10.0);
+            scores.put(score, placement);
+        }
+        Map<String, Object> percentiles = new HashMap<>();
+        percentiles.put("username", username);
+        percentiles.put("population", population.get(TeamActivity.RECOMMENDATION_SCORE).getCount());
+        percentiles.put("rankError", rankError);
+        percentiles.put("scores", scores);
+        return percentiles;
+    }
+
+    /**
+     * Both generations merged into fresh sketches, so readers never hold the lock while ranking.
+     */
+    private synchronized Map<String, QuantileSketch> population() {
+        rotate();
+        Map<String, QuantileSketch> population = new HashMap<>();
+        for (String score : SCORES) {
+            QuantileSketch merged = previous.scores.get(score).copy();
+            merged.merge(current.scores.get(score));
+            population.put(score, merged);
+        }
+        return population;
+    }
+
+    private void rotate() {
+        long now = System.currentTimeMillis();
+        if (now - current.startedMillis < generationMillis) return;
+        previous = now - current.startedMillis < 2 * generationMillis ? current : new Generation(now);
+        current = new Generation(now);
+    }
+
+    private final class Generation {
+        final long startedMillis;
+        final Map<String, QuantileSketch> scores = new HashMap<>();
+        final SeenUsers seen = new SeenUsers(expectedUsers);
+
+        Generation(long startedMillis) {
+            this.startedMillis = startedMillis;
+            for (String score : SCORES) scores.put(score, QuantileSketch.withRankError(rankError));
+        }
+    }
+
+    /**
+     * Bloom filter of normalized usernames with ~1% false positives at the expected size;
+     * a false positive only means one user's scores are skipped for a generation.
+     */
+    private static final class SeenUsers {
+        private static final int HASHES = 7;
+
+        private final long[] bits;
+        private final long size;
+
+        SeenUsers(int expectedUsers) {
+            // ~9.6 bits per user for a 1% false positive rate
+            long bitCount = Math.max(64, (long) Math.ceil(expectedUsers * 9.6));
+            this.bits = new long[(int) ((bitCount + 63) / 64)];
+            this.size = bits.length * 64L;
+        }
+
+        /**
+         * @return true if {@code username} was not (probably) seen before
+         */
+        boolean add(String username) {
+            long hash = fnv1a(username.getBytes(StandardCharsets.UTF_8));
+            long h1 = mix(hash);
+            long h2 = mix(h1) | 1;
+            boolean added = false;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, size);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits[word] & mask) == 0) {
+                    bits[word] |= mask;
+                    added = true;
+                }
+            }
+            return added;
+        }
+
+        /**
+         * MurmurHash3's 64-bit finalizer, to spread FNV's weak low bits.
+         */
+        private static long mix(long hash) {
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+
+        private static long fnv1a(byte[] data) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : data) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.devpulse.service;
+
+/**
+ * Thrown when a request is shed because its bulkhead is at its concurrency limit and
+ * its queue is full, or it waited too long in that queue.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
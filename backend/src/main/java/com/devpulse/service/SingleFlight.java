@@ -0,0 +1,40 @@
+package com.devpulse.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent asynchronous loads of the same key: while a load is in flight,
+ * later callers share its result instead of starting their own. Nothing is kept once the
+ * load completes, so failures are never cached.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            loader.get().whenComplete((value, error) -> {
+                // Leave the map before completing, so no caller can join a finished load
+                inFlight.remove(key, created);
+                if (error != null) created.completeExceptionally(error);
+                else created.complete(value);
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created.copy();
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,138 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.ActivitySnapshot;
+import com.devpulse.analysis.TeamActivity;
+import com.devpulse.config.GitHubConfig;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Analyzes every member of a GitHub organization. Members are analyzed in parallel,
+ * with bounded concurrency, and each member's snapshot is merged into a
+ * {@link TeamActivity} as soon as it is ready; raw events are never combined.
+ *
+ * <p>With sharding enabled, each member's snapshot is taken by the instance owning the
+ * member and sent back as raw counters, so members' events are fetched and stored once
+ * cluster-wide.
+ *
+ * <p>Before fanning out, the number of event pages read per member is sized so the
+ * whole team fits in analysis.org.quota-share of the remaining GitHub quota. Members
+ * whose events are already stored only cost the pages with new events.
+ */
+@Service
+public class TeamAnalysisService {
+    private static final Logger logger = LoggerFactory.getLogger(TeamAnalysisService.class);
+
+    private final GitHubService githubService;
+    private final AnalysisService analysisService;
+    private final GitHubCallScheduler callScheduler;
+    private final GitHubConfig githubConfig;
+    private final ClusterRoutingService cluster;
+    private final SingleFlight<String, Map<String, Object>> analyses = new SingleFlight<>();
+
+    @Value("${analysis.org.max-members:500}")
+    private int maxMembers;
+
+    @Value("${analysis.org.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${analysis.org.quota-share:0.5}")
+    private double quotaShare;
+
+    @Value("${analysis.percentiles.rank-error:0.01}")
+    private double rankError;
+
+    @Autowired
+    public TeamAnalysisService(GitHubService githubService, AnalysisService analysisService,
+                               GitHubCallScheduler callScheduler, GitHubConfig githubConfig, ClusterRoutingService cluster) {
+        this.githubService = githubService;
+        this.analysisService = analysisService;
+        this.callScheduler = callScheduler;
+        this.githubConfig = githubConfig;
+        this.cluster = cluster;
+    }
+
+    /**
+     * Team-level hour histogram, weekend and late-night ratios and score percentiles of
+     * the organization's members. Members that could not be analyzed are listed under
+     * {@code failedMembers}.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeOrganization(String org) {
+        return analyses.execute(AnalysisService.normalize(org), () ->
+            githubService.getOrganizationMembersAsync(org, maxMembers, Priority.INTERACTIVE)
+                .thenCompose(members -> analyzeMembers(org, members)));
+    }
+
+    private CompletableFuture<Map<String, Object>> analyzeMembers(String org, List<String> members) {
+        int eventsPerMember = eventsPerMember(members.size());
+        logger.debug("Analyzing {} members of {} with up to {} events each", members.size(), org, eventsPerMember);
+
+        TeamActivity team = new TeamActivity(rankError);
+        List<Map<String, Object>> failed = new ArrayList<>();
+        return new BatchAnalysis<ActivitySnapshot>(members,
+            username -> snapshotMember(username, eventsPerMember),
+            (username, snapshot) -> team.add(snapshot),
+            (username, error) -> {
+                synchronized (failed) {
+                    failed.add(BatchAnalysis.failure(username, error));
+                }
+            })
+            .start(Math.max(1, maxConcurrency))
+            .thenApply(done -> buildTeamAnalysis(org, members.size(), eventsPerMember, team, failed));
+    }
+
+    private CompletableFuture<ActivitySnapshot> snapshotMember(String username, int maxNewEvents) {
+        return cluster.route("snapshot/{username}?maxEvents=" + maxNewEvents, username, false,
+                () -> analysisService.snapshotUser(username, maxNewEvents, Priority.BACKGROUND).thenApply(ActivitySnapshot::toCounters))
+            .thenApply(ActivitySnapshot::fromCounters);
+    }
+
+    /**
+     * Splits the quota share among members, one page (100 events) at least and
+     * github.pagination.max-pages at most. The quota is unknown before the first call,
+     * in which case members get the configured maximum.
+     *
+     * @throws GitHubRateLimitException if not even one page per member fits
+     */
+    private int eventsPerMember(int memberCount) {
+        int maxPages = githubConfig.getMaxPages();
+        int remaining = callScheduler.getRemaining();
+        if (remaining < 0 || memberCount == 0) return maxPages * GitHubService.PER_PAGE;
+
+        int pages = (int) (remaining * quotaShare) / memberCount;
+        if (pages < 1) {
+            long retryAfter = callScheduler.getResetEpochSecond() - System.currentTimeMillis() / 1000;
+            throw new GitHubRateLimitException("Not enough GitHub quota left to analyze " + memberCount + " members", retryAfter);
+        }
+        return Math.min(pages, maxPages) * GitHubService.PER_PAGE;
+    }
+
+    private static Map<String, Object> buildTeamAnalysis(String org, int memberCount, int eventsPerMember,
+                                                         TeamActivity team, List<Map<String, Object>> failed) {
+        ActivitySnapshot totals = team.getTotals();
+        Map<String, Object> analysis = new HashMap<>();
+        analysis.put("organization", org);
+        analysis.put("members", memberCount);
+        analysis.put("analyzedMembers", team.getMemberCount());
+        analysis.put("failedMembers", failed);
+        analysis.put("eventsPerMember", eventsPerMember);
+        analysis.put("totalCommits", totals.getTotalCommits());
+        analysis.put("activityHours", totals.getActivityHours());
+        analysis.put("commitPatterns", totals.getCommitPatterns());
+        analysis.put("weekendCommitRatio", totals.getWeekendCommitRatio());
+        analysis.put("lateNightCommitRatio", totals.getLateNightCommitRatio());
+        analysis.put("workLifeBalance", totals.getWorkLifeBalance());
+        analysis.put("suspectWordCounts", totals.getSuspectWordCounts());
+        analysis.put("scorePercentiles", team.getScorePercentiles());
+        return analysis;
+    }
+}
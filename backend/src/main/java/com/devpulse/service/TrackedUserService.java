@@ -0,0 +1,296 @@
+package com.devpulse.service;
+
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps analyses of frequently requested users warm. Users are tracked when registered
+ * explicitly or once they are requested often enough; a background loop recomputes each
+ * tracked analysis before it reaches analysis.tracking.max-age-ms, so foreground
+ * requests are answered from memory.
+ *
+ * <p>Refreshes run at refresh priority, behind every other GitHub call, are spread over
+ * the refresh interval with jitter, and are paced to spend at most
+ * analysis.tracking.quota-share of the GitHub hourly quota. Users left overdue because
+ * the budget ran out are counted as the backlog. With sharding enabled only the users this instance owns are refreshed;
+ * the owner keeps them warm for the whole cluster.
+ */
+@Service
+public class TrackedUserService {
+    private static final Logger logger = LoggerFactory.getLogger(TrackedUserService.class);
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int DEFAULT_QUOTA = 5000;
+
+    private final AnalysisService analysisService;
+    private final GitHubCallScheduler callScheduler;
+    private final ClusterRoutingService cluster;
+    private final ScheduledExecutorService ticker =
+        Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("tracked-refresh-"));
+
+    private final ConcurrentHashMap<String, TrackedUser> tracked = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Semaphore refreshPermits;
+    private double refreshCredits;
+    /** Refresh calls already taken out of the credits */
+    private long chargedCalls;
+    private volatile int backlog;
+    private long countsResetAt = System.currentTimeMillis();
+
+    private final long maxAgeMillis;
+    private final long refreshIntervalMillis;
+    private final double jitter;
+    private final double quotaShare;
+    private final int promoteAfter;
+    private final long promotionWindowMillis;
+    private final long idleMillis;
+    private final int maxUsers;
+
+    @Autowired
+    public TrackedUserService(AnalysisService analysisService,
+                              GitHubCallScheduler callScheduler,
+                              ClusterRoutingService cluster,
+                              @Value("${analysis.tracking.max-age-ms:600000}") long maxAgeMillis,
+                              @Value("${analysis.tracking.jitter:0.1}") double jitter,
+                              @Value("${analysis.tracking.quota-share:0.3}") double quotaShare,
+                              @Value("${analysis.tracking.max-concurrent-refreshes:4}") int maxConcurrentRefreshes,
+                              @Value("${analysis.tracking.promote-after:3}") int promoteAfter,
+                              @Value("${analysis.tracking.promotion-window-ms:600000}") long promotionWindowMillis,
+                              @Value("${analysis.tracking.idle-ms:86400000}") long idleMillis,
+                              @Value("${analysis.tracking.max-users:5000}") int maxUsers) {
+        this.analysisService = analysisService;
+        this.callScheduler = callScheduler;
+        this.cluster = cluster;
+        this.maxAgeMillis = maxAgeMillis;
+        // Refresh at 80% of the max age so the jittered refresh still lands before it
+        this.refreshIntervalMillis = (long) (maxAgeMillis * 0.8);
+        this.jitter = jitter;
+        this.quotaShare = quotaShare;
+        this.refreshPermits = new Semaphore(maxConcurrentRefreshes);
+        this.promoteAfter = promoteAfter;
+        this.promotionWindowMillis = promotionWindowMillis;
+        this.idleMillis = idleMillis;
+        this.maxUsers = maxUsers;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Foreground analysis: the warm result when the user is tracked and it is recent
+     * enough, otherwise a fresh computation, kept if the user is (or just became) tracked.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeUser(String username) {
+        String key = AnalysisService.normalize(username);
+        TrackedUser user = tracked.get(key);
+        if (user == null && countRequest(key) >= promoteAfter) {
+            user = track(key, username, false);
+            requestCounts.remove(key);
+        }
+        if (user == null) return analysisService.analyzeUser(username);
+
+        long now = System.currentTimeMillis();
+        user.lastRequestedAt = now;
+        Map<String, Object> warm = user.analysis;
+        if (warm != null && now - user.computedAt < maxAgeMillis) {
+            return CompletableFuture.completedFuture(warm);
+        }
+        TrackedUser target = user;
+        int generation = user.generation;
+        return analysisService.analyzeUser(username).thenApply(analysis -> {
+            target.update(analysis, jittered(refreshIntervalMillis), generation);
+            return analysis;
+        });
+    }
+
+    /**
+     * Drops the user's warm analysis, e.g. after the user's time zone changed; analyses
+     * still in flight are not kept when they complete. The next request recomputes it.
+     */
+    public void invalidate(String username) {
+        TrackedUser user = tracked.get(AnalysisService.normalize(username));
+        if (user != null) user.invalidate();
+    }
+
+    public boolean register(String username) {
+        return track(AnalysisService.normalize(username), username, true) != null;
+    }
+
+    public boolean unregister(String username) {
+        return tracked.remove(AnalysisService.normalize(username)) != null;
+    }
+
+    /**
+     * @return tracked users this instance owns that are due but were not refreshed on the
+     * last tick because the refresh budget was spent
+     */
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public List<Map<String, Object>> getTrackedUsers() {
+        List<Map<String, Object>> users = new ArrayList<>(tracked.size());
+        for (TrackedUser user : tracked.values()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("username", user.username);
+            entry.put("explicit", user.explicit);
+            entry.put("computedAt", user.computedAt);
+            entry.put("nextRefreshAt", user.nextRefreshAt);
+            users.add(entry);
+        }
+        return users;
+    }
+
+    private TrackedUser track(String key, String username, boolean explicit) {
+        TrackedUser existing = tracked.get(key);
+        if (existing != null) {
+            if (explicit) existing.explicit = true;
+            return existing;
+        }
+        if (tracked.size() >= maxUsers) return null;
+        // First refresh within the next minute, at a random point so new users don't refresh in lockstep
+        long firstRefresh = System.currentTimeMillis() + ThreadLocalRandom.current().nextLong(Math.min(refreshIntervalMillis, 60_000) + 1);
+        TrackedUser created = new TrackedUser(username, explicit, firstRefresh);
+        existing = tracked.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    private int countRequest(String key) {
+        return requestCounts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            if (now - countsResetAt >= promotionWindowMillis) {
+                requestCounts.clear();
+                countsResetAt = now;
+            }
+            addRefreshCredits();
+            int overdue = 0;
+            for (Map.Entry<String, TrackedUser> entry : tracked.entrySet()) {
+                TrackedUser user = entry.getValue();
+                if (!user.explicit && now - user.lastRequestedAt > idleMillis) {
+                    tracked.remove(entry.getKey(), user);
+                    continue;
+                }
+                if (user.nextRefreshAt > now || user.refreshing || !cluster.owns(user.username)) continue;
+                if (refreshCredits < 1) {
+                    overdue++;
+                } else if (refreshPermits.tryAcquire()) {
+                    refreshCredits -= 1;
+                    chargedCalls++;
+                    refresh(user);
+                }
+            }
+            reportBacklog(overdue);
+        } catch (RuntimeException e) {
+            logger.warn("Tracked user refresh tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A refresh takes one credit up front (incremental syncs usually need one call); the
+     * calls refreshes actually sent beyond that, paging through a burst of new events or
+     * retries, are charged here, so the credits may go negative until repaid. Credits
+     * accrue at quota-share of the hourly limit and cap at one tick's worth plus the
+     * concurrent refreshes, so idle periods cannot build up a burst.
+     */
+    private void addRefreshCredits() {
+        long spent = callScheduler.getCallCount(Priority.REFRESH);
+        if (spent > chargedCalls) {
+            refreshCredits -= spent - chargedCalls;
+            chargedCalls = spent;
+        }
+        int limit = callScheduler.getLimit() > 0 ? callScheduler.getLimit() : DEFAULT_QUOTA;
+        double perTick = limit * quotaShare / 3600.0 * (TICK_MILLIS / 1000.0);
+        refreshCredits = Math.min(refreshCredits + perTick, perTick + refreshPermits.availablePermits());
+    }
+
+    private void reportBacklog(int overdue) {
+        if (overdue > 0 && backlog == 0) {
+            logger.warn("Refresh budget (quota-share {}) cannot keep up: {} tracked users overdue", quotaShare, overdue);
+        } else if (overdue == 0 && backlog > 0) {
+            logger.info("Tracked user refreshes caught up");
+        }
+        backlog = overdue;
+    }
+
+    private void refresh(TrackedUser user) {
+        user.refreshing = true;
+        int generation = user.generation;
+        analysisService.analyzeUser(user.username, Priority.REFRESH).whenComplete((analysis, error) -> {
+            user.refreshing = false;
+            refreshPermits.release();
+            if (error == null) {
+                user.update(analysis, jittered(refreshIntervalMillis), generation);
+            } else {
+                logger.debug("Refresh of {} failed: {}", user.username, error.getMessage());
+                user.nextRefreshAt = System.currentTimeMillis() + jittered(refreshIntervalMillis / 4);
+            }
+        });
+    }
+
+    private long jittered(long millis) {
+        double factor = 1 - jitter + ThreadLocalRandom.current().nextDouble() * 2 * jitter;
+        return (long) (millis * factor);
+    }
+
+    private static final class TrackedUser {
+        private final String username;
+        private volatile boolean explicit;
+        private volatile Map<String, Object> analysis;
+        private volatile long computedAt;
+        private volatile long nextRefreshAt;
+        private volatile long lastRequestedAt = System.currentTimeMillis();
+        private volatile boolean refreshing;
+        /** Bumped on invalidation, so analyses started before it are discarded */
+        private volatile int generation;
+
+        private TrackedUser(String username, boolean explicit, long nextRefreshAt) {
+            this.username = username;
+            this.explicit = explicit;
+            this.nextRefreshAt = nextRefreshAt;
+        }
+
+        private synchronized void update(Map<String, Object> analysis, long refreshIn, int startedAt) {
+            if (startedAt != generation) return;
+            long now = System.currentTimeMillis();
+            this.analysis = analysis;
+            this.computedAt = now;
+            this.nextRefreshAt = now + refreshIn;
+        }
+
+        private synchronized void invalidate() {
+            generation++;
+            analysis = null;
+            computedAt = 0;
+        }
+    }
+}
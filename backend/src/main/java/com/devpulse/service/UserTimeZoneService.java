@@ -0,0 +1,43 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.UtcOffsetTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Each developer's time zone, so late-night and weekend activity is judged in local
+ * time. Users without an entry are analyzed in UTC. Entries come from
+ * analysis.timezones ("user=Zone/Id,...") and can be changed at runtime.
+ */
+@Service
+public class UserTimeZoneService {
+
+    private final ConcurrentHashMap<String, UtcOffsetTable> zones = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserTimeZoneService(@Value("${analysis.timezones:}") String[] configured) {
+        for (String entry : configured) {
+            if (entry.isBlank()) continue;
+            int separator = entry.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid analysis.timezones entry, expected user=Zone/Id: " + entry);
+            }
+            setZone(entry.substring(0, separator), ZoneId.of(entry.substring(separator + 1).trim()));
+        }
+    }
+
+    public UtcOffsetTable getZone(String username) {
+        return zones.getOrDefault(AnalysisService.normalize(username), UtcOffsetTable.UTC);
+    }
+
+    public void setZone(String username, ZoneId zone) {
+        zones.put(AnalysisService.normalize(username), UtcOffsetTable.of(zone));
+    }
+
+    public boolean clearZone(String username) {
+        return zones.remove(AnalysisService.normalize(username)) != null;
+    }
+}
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS github_event (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(39) NOT NULL,
+    type VARCHAR(64),
+    created_at INTEGER,
+    repo_name VARCHAR(140),
+    keywords VARCHAR(1000)
+);
+
+-- Tables created before keywords were stored
+ALTER TABLE github_event ADD COLUMN IF NOT EXISTS keywords VARCHAR(1000);
+
+CREATE INDEX IF NOT EXISTS idx_github_event_username_id ON github_event (username, id);
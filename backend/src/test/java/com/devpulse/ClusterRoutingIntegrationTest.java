@@ -0,0 +1,316 @@
+package com.devpulse;
+
+import com.devpulse.service.ClusterRoutingService;
+import com.devpulse.service.TrackedUserService;
+import com.devpulse.service.UserTimeZoneService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances on random ports sharding users between them, plus a third peer that is
+ * never started. Each instance talks to its own GitHub stub, so the stub that served a
+ * user tells which instance computed the result.
+ */
+class ClusterRoutingIntegrationTest {
+
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    private static GitHubStub githubA;
+    private static GitHubStub githubB;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static String urlA;
+    private static String urlB;
+    private static String urlDead;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        githubA = new GitHubStub();
+        githubB = new GitHubStub();
+        int portA = freePort();
+        int portB = freePort();
+        urlA = "http://localhost:" + portA;
+        urlB = "http://localhost:" + portB;
+        urlDead = "http://localhost:" + freePort();
+        String peers = urlA + "," + urlB + "," + urlDead;
+        nodeA = start("a", portA, urlA, peers, githubA);
+        nodeB = start("b", portB, urlB, peers, githubB);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        if (nodeA != null) nodeA.close();
+        if (nodeB != null) nodeB.close();
+        if (githubA != null) githubA.stop();
+        if (githubB != null) githubB.stop();
+    }
+
+    @Test
+    void analysisAskedOfAnotherInstanceIsComputedByTheOwner() throws Exception {
+        String user = ownedBy(urlB, "analyze");
+
+        HttpResponse<String> response = get(urlA + "/api/analyze/" + user);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"productivityScore\"");
+        assertThat(githubB.eventCalls(user)).isPositive();
+        assertThat(githubA.eventCalls(user)).isZero();
+    }
+
+    @Test
+    void percentilesAndTrendsAreForwardedToTheOwner() throws Exception {
+        String user = ownedBy(urlB, "stats");
+
+        HttpResponse<String> percentiles = get(urlA + "/api/percentiles/" + user);
+        HttpResponse<String> trends = get(urlA + "/api/trends/" + user + "?weeks=3&months=2");
+
+        assertThat(percentiles.statusCode()).isEqualTo(200);
+        assertThat(trends.statusCode()).isEqualTo(200);
+        assertThat(trends.body()).contains("\"weeklyTrend\":[0,0,3]", "\"monthlyTrend\":[0,3]");
+        assertThat(githubB.eventCalls(user)).isPositive();
+        assertThat(githubA.eventCalls(user)).isZero();
+    }
+
+    @Test
+    void streamIsRelayedFromTheOwner() throws Exception {
+        String user = ownedBy(urlB, "stream");
+
+        HttpResponse<String> response = get(urlA + "/api/analyze/" + user + "/stream");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("event:profile", "event:complete").doesNotContain("event:error");
+        assertThat(githubB.eventCalls(user)).isPositive();
+        assertThat(githubA.eventCalls(user)).isZero();
+    }
+
+    @Test
+    void timeZoneChangesReachTheOwner() throws Exception {
+        String user = ownedBy(urlB, "zone");
+        UserTimeZoneService zonesB = nodeB.getBean(UserTimeZoneService.class);
+
+        HttpResponse<String> set = send("PUT", urlA + "/api/timezone/" + user + "?zone=America/Sao_Paulo");
+
+        assertThat(set.statusCode()).isEqualTo(200);
+        assertThat(zonesB.getZone(user).getZoneId()).isEqualTo("America/Sao_Paulo");
+        assertThat(nodeA.getBean(UserTimeZoneService.class).getZone(user).getZoneId()).isEqualTo("America/Sao_Paulo");
+
+        HttpResponse<String> cleared = send("DELETE", urlA + "/api/timezone/" + user);
+
+        assertThat(cleared.statusCode()).isEqualTo(204);
+        assertThat(zonesB.getZone(user).getZoneId()).isEqualTo("UTC");
+    }
+
+    @Test
+    void usersOfAnUnreachableOwnerAreComputedLocally() throws Exception {
+        String user = ownedBy(urlDead, "dead");
+
+        HttpResponse<String> response = get(urlA + "/api/analyze/" + user);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(githubA.eventCalls(user)).isPositive();
+        assertThat(githubB.eventCalls(user)).isZero();
+    }
+
+    @Test
+    void timeZoneChangesForAnUnreachableOwnerAreRejected() throws Exception {
+        String user = ownedBy(urlDead, "deadzone");
+
+        HttpResponse<String> response = send("PUT", urlA + "/api/timezone/" + user + "?zone=Europe/Lisbon");
+
+        assertThat(response.statusCode()).isEqualTo(503);
+        assertThat(response.headers().firstValue("Retry-After")).isPresent();
+    }
+
+    @Test
+    void trackingChangesReachTheOwner() throws Exception {
+        String user = ownedBy(urlB, "tracked");
+        TrackedUserService trackedB = nodeB.getBean(TrackedUserService.class);
+
+        HttpResponse<String> tracked = send("PUT", urlA + "/api/tracked/" + user);
+
+        assertThat(tracked.statusCode()).isEqualTo(204);
+        assertThat(trackedB.getTrackedUsers()).anyMatch(entry -> entry.get("username").equals(user));
+
+        HttpResponse<String> untracked = send("DELETE", urlA + "/api/tracked/" + user);
+
+        assertThat(untracked.statusCode()).isEqualTo(204);
+        assertThat(trackedB.getTrackedUsers()).noneMatch(entry -> entry.get("username").equals(user));
+    }
+
+    @Test
+    void batchMembersAreAnalyzedByTheirOwners() throws Exception {
+        String local = ownedBy(urlA, "batch-a");
+        String remote = ownedBy(urlB, "batch-b");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(urlA + "/api/analyze/batch"))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("[\"" + local + "\",\"" + remote + "\"]"))
+            .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).hasSize(2).allMatch(line -> line.contains("\"productivityScore\""));
+        assertThat(githubA.eventCalls(local)).isPositive();
+        assertThat(githubB.eventCalls(remote)).isPositive();
+        assertThat(githubA.eventCalls(remote)).isZero();
+    }
+
+    @Test
+    void organizationMembersAreSnapshottedByTheirOwners() throws Exception {
+        String local = ownedBy(urlA, "member-a");
+        String remote = ownedBy(urlB, "member-b");
+        githubA.members("team", local, remote);
+
+        HttpResponse<String> response = get(urlA + "/api/analyze/org/team");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("\"analyzedMembers\":2", "\"totalCommits\":6");
+        assertThat(githubA.eventCalls(local)).isPositive();
+        assertThat(githubB.eventCalls(remote)).isPositive();
+        assertThat(githubA.eventCalls(remote)).isZero();
+    }
+
+    private static ConfigurableApplicationContext start(String name, int port, String self, String peers, GitHubStub github) {
+        return new SpringApplicationBuilder(DevPulseApplication.class)
+            .properties(
+                "server.port=" + port,
+                "github.token=test",
+                "github.username=test",
+                "github.api.base-url=" + github.url(),
+                "spring.datasource.url=jdbc:h2:mem:cluster-" + name + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.sql.init.mode=always",
+                "analysis.cluster.self=" + self,
+                "analysis.cluster.peers=" + peers,
+                "analysis.cluster.timeout-ms=5000")
+            .run();
+    }
+
+    /**
+     * A fresh username, distinct per test, that the ring assigns to {@code owner}.
+     */
+    private static String ownedBy(String owner, String prefix) {
+        ClusterRoutingService ring = nodeA.getBean(ClusterRoutingService.class);
+        for (int i = 0; ; i++) {
+            String user = prefix + "-" + i;
+            if (ring.ownerOf(user).equals(owner)) return user;
+        }
+    }
+
+    private static HttpResponse<String> get(String url) throws Exception {
+        return send("GET", url);
+    }
+
+    private static HttpResponse<String> send(String method, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(30))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Serves a profile, one repository and a few push events for any user, counting the
+     * event requests per user. Event ids are unique across users, as GitHub's are.
+     */
+    private static final class GitHubStub {
+        private final HttpServer server;
+        private final Map<String, AtomicInteger> eventCalls = new ConcurrentHashMap<>();
+        private final Map<String, String[]> members = new ConcurrentHashMap<>();
+        private final Map<String, Integer> firstEventIds = new ConcurrentHashMap<>();
+        private final AtomicInteger nextFirstEventId = new AtomicInteger(1000);
+
+        private GitHubStub() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        private String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        private int eventCalls(String user) {
+            AtomicInteger calls = eventCalls.get(user);
+            return calls == null ? 0 : calls.get();
+        }
+
+        private void members(String org, String... logins) {
+            members.put(org, logins);
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String body = null;
+            if (path.length == 3 && path[1].equals("users")) {
+                body = "{\"login\":\"" + path[2] + "\",\"name\":\"Test\",\"public_repos\":1,\"followers\":0}";
+            } else if (path.length == 4 && path[1].equals("users") && path[3].equals("repos")) {
+                body = "[{\"name\":\"project\",\"full_name\":\"" + path[2] + "/project\"}]";
+            } else if (path.length == 4 && path[1].equals("users") && path[3].equals("events")) {
+                eventCalls.computeIfAbsent(path[2], k -> new AtomicInteger()).incrementAndGet();
+                body = events(path[2], firstEventIds.computeIfAbsent(path[2], k -> nextFirstEventId.getAndAdd(10)));
+            } else if (path.length == 4 && path[1].equals("orgs") && path[3].equals("members") && members.containsKey(path[2])) {
+                StringBuilder logins = new StringBuilder("[");
+                for (String login : members.get(path[2])) {
+                    if (logins.length() > 1) logins.append(',');
+                    logins.append("{\"login\":\"").append(login).append("\"}");
+                }
+                body = logins.append(']').toString();
+            }
+            byte[] bytes = (body != null ? body : "{\"message\":\"Not Found\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-RateLimit-Limit", "5000");
+            exchange.getResponseHeaders().set("X-RateLimit-Remaining", "4999");
+            exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(Instant.now().getEpochSecond() + 3600));
+            exchange.sendResponseHeaders(body != null ? 200 : 404, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private static String events(String user, int firstId) {
+            StringBuilder events = new StringBuilder("[");
+            for (int i = 3; i >= 1; i--) {
+                if (i < 3) events.append(',');
+                events.append("{\"id\":\"").append(firstId + i).append("\",\"type\":\"PushEvent\",\"created_at\":\"")
+                    .append(Instant.now().minus(Duration.ofDays(i)).toString())
+                    .append("\",\"repo\":{\"name\":\"").append(user).append("/project\"},")
+                    .append("\"payload\":{\"commits\":[{\"message\":\"change ").append(i).append("\"}]}}");
+            }
+            return events.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.devpulse.analysis;
+
+import org.junit.jupiter.api.Test;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActivityRollupTest {
+
+    private static final int DAY = 86400;
+    /** 2024-01-01, a Monday */
+    private static final int MONDAY = 1704067200;
+    private static final long NOW = MONDAY + 9L * DAY;
+
+    @Test
+    void countsCommitsPerWeekAndMonth() {
+        ActivityRollup rollup = new ActivityRollup().ingest(EventBatch.builder(4)
+            .add(4, EventType.PUSH, MONDAY + 7 * DAY, "octocat/hello")
+            .add(3, EventType.ISSUES, MONDAY + 6 * DAY, "octocat/hello")
+            .add(2, EventType.PUSH, MONDAY + 6 * DAY, "octocat/hello")
+            .add(1, EventType.PUSH, MONDAY, "octocat/hello")
+            .build());
+
+        assertThat(rollup.getWeekly(NOW, 3)).containsExactly(0, 2, 1);
+        assertThat(rollup.getMonthly(NOW, 2)).containsExactly(0, 3);
+    }
+
+    @Test
+    void countsCommitsPerDay() {
+        ActivityRollup rollup = new ActivityRollup().ingest(EventBatch.builder(3)
+            .add(3, EventType.PUSH, MONDAY + 8 * DAY + 3600, "octocat/hello")
+            .add(2, EventType.PUSH, MONDAY + 8 * DAY, "octocat/hello")
+            .add(1, EventType.PUSH, MONDAY + 6 * DAY, "octocat/hello")
+            .build());
+
+        assertThat(rollup.getDaily(NOW, 4)).containsExactly(1, 0, 2, 0);
+    }
+
+    @Test
+    void bucketsInTheUsersTimeZone() {
+        // Sunday 2024-01-07 23:30 in Sao Paulo (UTC-3) is already Monday the 8th in UTC
+        int sundayNight = MONDAY + 7 * DAY + 2 * 3600 + 1800;
+        EventBatch events = EventBatch.builder(1).add(1, EventType.PUSH, sundayNight, "octocat/hello").build();
+
+        ActivityRollup utc = new ActivityRollup().ingest(events);
+        ActivityRollup saoPaulo = new ActivityRollup(UtcOffsetTable.of(ZoneId.of("America/Sao_Paulo"))).ingest(events);
+
+        assertThat(utc.getWeekly(NOW, 2)).containsExactly(0, 1);
+        assertThat(saoPaulo.getWeekly(NOW, 2)).containsExactly(1, 0);
+        // Now is still January 9th in Sao Paulo, so the window ends there
+        assertThat(saoPaulo.getDaily(NOW, 4)).containsExactly(0, 1, 0, 0);
+    }
+
+    @Test
+    void ingestsEachEventOnce() {
+        EventBatch first = EventBatch.builder(2)
+            .add(2, EventType.PUSH, MONDAY, "octocat/hello")
+            .add(1, EventType.PUSH, MONDAY, "octocat/hello")
+            .build();
+        EventBatch overlapping = EventBatch.builder(2)
+            .add(3, EventType.PUSH, MONDAY, "octocat/hello")
+            .add(2, EventType.PUSH, MONDAY, "octocat/hello")
+            .build();
+
+        ActivityRollup rollup = new ActivityRollup().ingest(first).ingest(first).ingest(overlapping);
+
+        assertThat(rollup.getWeekly(NOW, 2)).containsExactly(3, 0);
+    }
+}
@@ -0,0 +1,335 @@
+package com.devpulse.analysis;
+
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The fused single pass must give the same metrics as the per-metric stream scans it
+ * replaced. {@link Baseline} is that original code, with "now" passed in instead of read
+ * from the clock.
+ */
+class ActivitySnapshotParityTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+    private static final String[] TYPES = { "PushEvent", "CreateEvent", "CommitCommentEvent", "IssuesEvent", "WatchEvent" };
+    private static final String[] REPOS = { "octocat/hello", "octocat/spoon-knife", "hubot/scripts" };
+
+    @Test
+    void matchesTheBaselineOnAFixedHistory() {
+        List<Map<String, Object>> events = List.of(
+            event("PushEvent", "2024-03-01T09:15:00Z", "octocat/hello"),
+            event("PushEvent", "2024-02-29T23:40:00Z", "octocat/hello"),
+            event("CreateEvent", "2024-02-28T03:05:00Z", "octocat/spoon-knife"),
+            event("PushEvent", "2024-02-25T14:00:00Z", "hubot/scripts"),
+            event("PushEvent", "2024-02-24T19:30:00Z", "octocat/hello"),
+            event("CommitCommentEvent", "2024-02-24T20:00:00Z", "octocat/hello"),
+            event("IssuesEvent", "2024-02-20T10:00:00Z", "octocat/hello"),
+            event("PushEvent", "2024-01-15T22:00:00Z", "octocat/spoon-knife"),
+            event("WatchEvent", "2024-01-10T08:00:00Z", "hubot/scripts"));
+
+        assertSameMetrics(events);
+    }
+
+    @Test
+    void matchesTheBaselineWithoutEventsOrPushes() {
+        assertSameMetrics(List.of());
+        assertSameMetrics(List.of(
+            event("IssuesEvent", "2024-02-20T10:00:00Z", "octocat/hello"),
+            event("CreateEvent", "2024-02-18T23:00:00Z", "octocat/hello")));
+    }
+
+    @Test
+    void matchesTheBaselineOnRandomHistories() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (int i = random.nextInt(80); i > 0; i--) {
+                // Up to 60 days back, so some events fall outside the 30-day trend window
+                Instant createdAt = NOW.minusSeconds(random.nextInt(60 * 86400));
+                events.add(event(TYPES[random.nextInt(TYPES.length)], createdAt.toString(), REPOS[random.nextInt(REPOS.length)]));
+            }
+            assertSameMetrics(events);
+        }
+    }
+
+    private static void assertSameMetrics(List<Map<String, Object>> events) {
+        ActivitySnapshot snapshot = new ActivityAccumulator(NOW.getEpochSecond())
+            .addAll(EventBatch.fromEvents(events))
+            .snapshot();
+        Baseline baseline = new Baseline(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC));
+
+        assertThat(snapshot.getAverageCommitsPerDay()).isEqualTo(baseline.calculateAverageCommits(events));
+        assertThat(snapshot.getLateNightCommits()).isEqualTo(baseline.calculateLateNightCommits(events));
+        assertThat(snapshot.getWeekendCommitRatio()).isEqualTo(baseline.calculateWeekendRatio(events));
+        assertThat(snapshot.getConsecutiveDays()).isEqualTo(baseline.calculateConsecutiveDays(events));
+        assertThat(snapshot.getIdleDays()).isEqualTo(baseline.calculateIdleDays(events));
+        assertThat(snapshot.getTotalCommits()).isEqualTo(baseline.calculateTotalCommits(events));
+        assertThat(snapshot.getTrend()).isEqualTo(baseline.calculateTrend(events));
+        assertThat(snapshot.getRecommendationScore()).isEqualTo(baseline.calculateRecommendationScore(events));
+        assertThat(snapshot.getAdvice()).isEqualTo(baseline.generateAdvice(events));
+        assertThat(snapshot.getCommitFrequency()).isEqualTo(baseline.calculateCommitFrequency(events));
+        assertThat(snapshot.getWorkLifeBalance()).isEqualTo(baseline.calculateWorkLifeBalance(events));
+        assertThat(snapshot.getProductivityScore()).isEqualTo(baseline.calculateProductivityScore(events));
+        assertThat(snapshot.getCommitPatterns()).isEqualTo(baseline.analyzeCommitPatterns(events));
+        assertThat(snapshot.getActivityHours()).isEqualTo(baseline.calculateActivityHours(events));
+        assertThat(snapshot.getProjectDiversity()).isEqualTo(baseline.calculateProjectDiversity(events));
+    }
+
+    private static Map<String, Object> event(String type, String createdAt, String repo) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("type", type);
+        event.put("created_at", createdAt);
+        event.put("repo", Map.of("name", repo));
+        return event;
+    }
+
+    private static boolean isCommit(Map<String, Object> event) {
+        String type = (String) event.get("type");
+        return "PushEvent".equals(type) || "CreateEvent".equals(type) || "CommitCommentEvent".equals(type);
+    }
+
+    private static boolean isPush(Map<String, Object> event) {
+        return "PushEvent".equals(event.get("type"));
+    }
+
+    private static LocalDateTime createdAt(Map<String, Object> event) {
+        return LocalDateTime.parse((String) event.get("created_at"), DateTimeFormatter.ISO_DATE_TIME);
+    }
+
+    private static boolean isNight(Map<String, Object> event) {
+        int hour = createdAt(event).getHour();
+        return hour >= 22 || hour < 6;
+    }
+
+    private static boolean isWeekend(Map<String, Object> event) {
+        int dayOfWeek = createdAt(event).getDayOfWeek().getValue();
+        return dayOfWeek == 6 || dayOfWeek == 7;
+    }
+
+    private static long pushesInHours(List<Map<String, Object>> contributions, int from, int to) {
+        return contributions.stream()
+            .filter(ActivitySnapshotParityTest::isPush)
+            .filter(event -> createdAt(event).getHour() >= from && createdAt(event).getHour() < to)
+            .count();
+    }
+
+    /**
+     * The calculations of the original AnalysisController, one stream scan per metric.
+     */
+    private static final class Baseline {
+        private final LocalDateTime now;
+
+        private Baseline(LocalDateTime now) {
+            this.now = now;
+        }
+
+        double calculateAverageCommits(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0.0;
+            return contributions.stream().filter(ActivitySnapshotParityTest::isCommit).count() / 30.0;
+        }
+
+        int calculateLateNightCommits(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0;
+            return (int) contributions.stream()
+                .filter(ActivitySnapshotParityTest::isCommit)
+                .filter(ActivitySnapshotParityTest::isNight)
+                .count();
+        }
+
+        double calculateWeekendRatio(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0.0;
+            long totalCommits = contributions.stream().filter(ActivitySnapshotParityTest::isCommit).count();
+            if (totalCommits == 0) return 0.0;
+            long weekendCommits = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isCommit)
+                .filter(ActivitySnapshotParityTest::isWeekend)
+                .count();
+            return (weekendCommits * 100.0) / totalCommits;
+        }
+
+        int calculateConsecutiveDays(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0;
+            List<LocalDateTime> commitDates = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isCommit)
+                .map(ActivitySnapshotParityTest::createdAt)
+                .sorted()
+                .collect(Collectors.toList());
+            if (commitDates.isEmpty()) return 0;
+
+            int maxConsecutive = 1;
+            int currentConsecutive = 1;
+            LocalDateTime lastDate = commitDates.get(0);
+            for (int i = 1; i < commitDates.size(); i++) {
+                LocalDateTime currentDate = commitDates.get(i);
+                if (lastDate.plusDays(1).toLocalDate().equals(currentDate.toLocalDate())) {
+                    currentConsecutive++;
+                    maxConsecutive = Math.max(maxConsecutive, currentConsecutive);
+                } else {
+                    currentConsecutive = 1;
+                }
+                lastDate = currentDate;
+            }
+            return maxConsecutive;
+        }
+
+        int calculateIdleDays(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0;
+            LocalDateTime lastCommit = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isPush)
+                .map(ActivitySnapshotParityTest::createdAt)
+                .max(LocalDateTime::compareTo)
+                .orElse(now);
+            return (int) (now.toEpochSecond(ZoneOffset.UTC) - lastCommit.toEpochSecond(ZoneOffset.UTC)) / (24 * 3600);
+        }
+
+        int calculateTotalCommits(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0;
+            return (int) contributions.stream().filter(ActivitySnapshotParityTest::isCommit).count();
+        }
+
+        String calculateTrend(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return "indeterminado";
+            LocalDateTime thirtyDaysAgo = now.minusDays(30);
+            long recentCommits = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isCommit)
+                .filter(event -> createdAt(event).isAfter(thirtyDaysAgo))
+                .count();
+            if (recentCommits > 20) return "positivo";
+            if (recentCommits > 10) return "estável";
+            return "negativo";
+        }
+
+        int calculateRecommendationScore(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0;
+            int score = 0;
+            double avgCommits = calculateAverageCommits(contributions);
+            if (avgCommits > 3) score += 30;
+            else if (avgCommits > 1) score += 20;
+            else if (avgCommits > 0.5) score += 10;
+            int lateNightCommits = calculateLateNightCommits(contributions);
+            if (lateNightCommits < 5) score += 20;
+            else if (lateNightCommits < 10) score += 10;
+            double weekendRatio = calculateWeekendRatio(contributions);
+            if (weekendRatio < 20) score += 20;
+            else if (weekendRatio < 40) score += 10;
+            int consecutiveDays = calculateConsecutiveDays(contributions);
+            if (consecutiveDays > 7) score += 30;
+            else if (consecutiveDays > 3) score += 20;
+            else if (consecutiveDays > 1) score += 10;
+            return score;
+        }
+
+        String generateAdvice(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return "Nenhum dado disponível para análise.";
+            StringBuilder advice = new StringBuilder();
+            if (calculateAverageCommits(contributions) < 0.5) {
+                advice.append("Tente aumentar sua frequência de commits. ");
+            }
+            if (calculateLateNightCommits(contributions) > 10) {
+                advice.append("Considere reduzir commits noturnos para melhorar seu bem-estar. ");
+            }
+            if (calculateWeekendRatio(contributions) > 40) {
+                advice.append("Muitos commits nos fins de semana podem indicar sobrecarga. ");
+            }
+            if (calculateIdleDays(contributions) > 7) {
+                advice.append("Considere manter um ritmo mais constante de desenvolvimento. ");
+            }
+            return advice.length() > 0 ? advice.toString() : "Continue mantendo um bom ritmo de desenvolvimento!";
+        }
+
+        Map<String, Object> calculateCommitFrequency(List<Map<String, Object>> contributions) {
+            Map<String, Object> frequency = new HashMap<>();
+            if (contributions.isEmpty()) {
+                frequency.put("daily", 0);
+                frequency.put("weekly", 0);
+                frequency.put("monthly", 0);
+                return frequency;
+            }
+            long dailyCommits = contributions.stream().filter(ActivitySnapshotParityTest::isPush).count();
+            frequency.put("daily", dailyCommits / 30.0);
+            frequency.put("weekly", dailyCommits / 4.0);
+            frequency.put("monthly", dailyCommits);
+            return frequency;
+        }
+
+        double calculateWorkLifeBalance(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0.0;
+            long totalCommits = contributions.stream().filter(ActivitySnapshotParityTest::isPush).count();
+            if (totalCommits == 0) return 0.0;
+            long weekendCommits = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isPush)
+                .filter(ActivitySnapshotParityTest::isWeekend)
+                .count();
+            long lateNightCommits = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isPush)
+                .filter(ActivitySnapshotParityTest::isNight)
+                .count();
+            double weekendRatio = (weekendCommits * 100.0) / totalCommits;
+            double lateNightRatio = (lateNightCommits * 100.0) / totalCommits;
+            return Math.max(0, 100 - (weekendRatio + lateNightRatio) / 2);
+        }
+
+        double calculateProductivityScore(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0.0;
+            double commitScore = Math.min(calculateAverageCommits(contributions) * 10, 40);
+            double consistencyScore = Math.min(calculateConsecutiveDays(contributions) * 2, 30);
+            double balanceScore = calculateWorkLifeBalance(contributions) * 0.3;
+            return commitScore + consistencyScore + balanceScore;
+        }
+
+        Map<String, Object> analyzeCommitPatterns(List<Map<String, Object>> contributions) {
+            Map<String, Object> patterns = new HashMap<>();
+            long totalCommits = contributions.stream().filter(ActivitySnapshotParityTest::isPush).count();
+            if (totalCommits == 0) {
+                patterns.put("morning", 0);
+                patterns.put("afternoon", 0);
+                patterns.put("evening", 0);
+                patterns.put("night", 0);
+                return patterns;
+            }
+            long nightCommits = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isPush)
+                .filter(ActivitySnapshotParityTest::isNight)
+                .count();
+            patterns.put("morning", (pushesInHours(contributions, 6, 12) * 100.0) / totalCommits);
+            patterns.put("afternoon", (pushesInHours(contributions, 12, 18) * 100.0) / totalCommits);
+            patterns.put("evening", (pushesInHours(contributions, 18, 22) * 100.0) / totalCommits);
+            patterns.put("night", (nightCommits * 100.0) / totalCommits);
+            return patterns;
+        }
+
+        Map<String, Integer> calculateActivityHours(List<Map<String, Object>> contributions) {
+            Map<String, Integer> activityHours = new HashMap<>();
+            for (int i = 0; i < 24; i++) {
+                activityHours.put(String.format("%02d:00", i), (int) pushesInHours(contributions, i, i + 1));
+            }
+            return activityHours;
+        }
+
+        double calculateProjectDiversity(List<Map<String, Object>> contributions) {
+            if (contributions.isEmpty()) return 0.0;
+            Set<String> uniqueRepos = contributions.stream()
+                .filter(ActivitySnapshotParityTest::isPush)
+                .map(event -> {
+                    Object repo = event.get("repo");
+                    return repo instanceof Map ? (String) ((Map<?, ?>) repo).get("name") : null;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+            return uniqueRepos.size();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.devpulse.analysis;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventBatchParserTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final KeywordMatcher KEYWORDS = KeywordMatcher.of(List.of("wip", "fix again"));
+
+    @Test
+    void decodesTheSelectedFields() throws IOException {
+        EventBatch batch = parse(EventBatchParser.SUPPORTED_FIELDS, """
+            [{"id": "2", "type": "PushEvent", "created_at": "2024-01-08T12:00:00Z",
+              "repo": {"id": 1, "name": "octocat/hello"}}]
+            """);
+
+        assertThat(batch.size()).isEqualTo(1);
+        assertThat(batch.getId(0)).isEqualTo(2);
+        assertThat(batch.getType(0)).isEqualTo(EventType.PUSH);
+        assertThat(batch.getCreatedAt(0)).isEqualTo((int) Instant.parse("2024-01-08T12:00:00Z").getEpochSecond());
+        assertThat(batch.getRepoNameOf(0)).isEqualTo("octocat/hello");
+    }
+
+    @Test
+    void skipsUnknownFieldsWhateverTheirShape() throws IOException {
+        EventBatch batch = parse(EventBatchParser.SUPPORTED_FIELDS, """
+            [{"actor": {"login": "octocat", "urls": [1, {"a": [2]}]}, "public": true, "org": null,
+              "id": 3, "type": "ReleaseEvent",
+              "payload": {"release": {"body": "wip"}, "commits": [{"sha": "a", "message": "wip"}, "junk"]},
+              "created_at": "2024-01-08T12:00:00Z"},
+             {"id": 4, "type": "SponsorshipEvent", "extra": [[], {}]}]
+            """);
+
+        assertThat(batch.size()).isEqualTo(2);
+        assertThat(batch.getId(0)).isEqualTo(3);
+        assertThat(batch.getType(0)).isEqualTo(EventType.RELEASE);
+        assertThat(keywords(batch, 0)).containsExactly("wip");
+        assertThat(batch.getId(1)).isEqualTo(4);
+        assertThat(batch.getType(1)).isEqualTo(EventType.OTHER);
+    }
+
+    @Test
+    void leavesMissingOrMalformedFieldsAtTheirMissingValue() throws IOException {
+        EventBatch batch = parse(EventBatchParser.SUPPORTED_FIELDS, """
+            [{"type": "PushEvent"},
+             {"id": "not-a-number", "created_at": null, "repo": {"id": 1}},
+             {"id": {"nested": 1}, "type": 7, "repo": "octocat/hello"}]
+            """);
+
+        assertThat(batch.size()).isEqualTo(3);
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat(batch.getId(i)).isEqualTo(EventBatch.NO_ID);
+            assertThat(batch.getCreatedAt(i)).isEqualTo(EventBatch.NO_TIMESTAMP);
+            assertThat(batch.getRepoNameOf(i)).isNull();
+            assertThat(keywords(batch, i)).isEmpty();
+        }
+        assertThat(batch.getType(0)).isEqualTo(EventType.PUSH);
+        assertThat(batch.getType(2)).isEqualTo(EventType.OTHER);
+    }
+
+    @Test
+    void decodesOnlyTheConfiguredFields() throws IOException {
+        EventBatch batch = parse(List.of(EventBatchParser.ID, EventBatchParser.TYPE), """
+            [{"id": 5, "type": "PushEvent", "created_at": "2024-01-08T12:00:00Z",
+              "repo": {"name": "octocat/hello"}, "payload": {"commits": [{"message": "wip"}]}}]
+            """);
+
+        assertThat(batch.getId(0)).isEqualTo(5);
+        assertThat(batch.getType(0)).isEqualTo(EventType.PUSH);
+        assertThat(batch.getCreatedAt(0)).isEqualTo(EventBatch.NO_TIMESTAMP);
+        assertThat(batch.getRepoNameOf(0)).isNull();
+        assertThat(keywords(batch, 0)).isEmpty();
+    }
+
+    @Test
+    void keepsEveryKeywordFoundInTheCommitMessages() throws IOException {
+        EventBatch batch = parse(EventBatchParser.SUPPORTED_FIELDS, """
+            [{"id": 6, "payload": {"commits": [{"message": "WIP: login"}, {"message": "Fix again, wip"}]}}]
+            """);
+
+        assertThat(keywords(batch, 0)).containsExactlyInAnyOrder("wip", "fix again", "wip");
+    }
+
+    @Test
+    void parsesIdsBeyondEighteenDigits() throws IOException {
+        EventBatch batch = parse(List.of(EventBatchParser.ID), """
+            [{"id": "9223372036854775807"}, {"id": "92233720368547758070"}]
+            """);
+
+        assertThat(batch.getId(0)).isEqualTo(Long.MAX_VALUE);
+        assertThat(batch.getId(1)).isEqualTo(EventBatch.NO_ID);
+    }
+
+    @Test
+    void rejectsAnythingButAnArrayAndUnsupportedFields() {
+        EventBatchParser parser = new EventBatchParser(JSON, EventBatchParser.SUPPORTED_FIELDS);
+
+        assertThatThrownBy(() -> parser.parse("{\"message\": \"Not Found\"}".getBytes(StandardCharsets.UTF_8)))
+            .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> new EventBatchParser(JSON, List.of("actor.login")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static EventBatch parse(List<String> fields, String json) throws IOException {
+        return new EventBatchParser(JSON, fields, KEYWORDS).parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> keywords(EventBatch batch, int index) {
+        List<String> keywords = new ArrayList<>();
+        for (int entry = batch.getKeywordStart(index); entry < batch.getKeywordEnd(index); entry++) {
+            keywords.add(batch.getKeyword(batch.getKeywordIndex(entry)));
+        }
+        return keywords;
+    }
+}
@@ -0,0 +1,101 @@
+package com.devpulse.analysis;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordMatcherTest {
+
+    private static final List<String> DICTIONARY = List.of("fix", "fix again", "again", "de novo", "wip", "hack");
+
+    @Test
+    void reportsOverlappingTermsThatShareASuffix() {
+        KeywordMatcher matcher = KeywordMatcher.of(DICTIONARY);
+
+        assertThat(matches(matcher, "fix again")).containsExactlyInAnyOrder("fix", "fix again", "again");
+    }
+
+    @Test
+    void foldsCaseOfTermsAndText() {
+        KeywordMatcher matcher = KeywordMatcher.of(List.of("WIP", "De Novo"));
+
+        assertThat(matches(matcher, "Wip: quebrou DE NOVO")).containsExactlyInAnyOrder("wip", "de novo");
+    }
+
+    @Test
+    void matchesOnlyWholeWords() {
+        KeywordMatcher matcher = KeywordMatcher.of(DICTIONARY);
+
+        assertThat(matches(matcher, "hackathon prefix wip2 fixed")).isEmpty();
+        assertThat(matches(matcher, "(hack) wip, fix!")).containsExactlyInAnyOrder("hack", "wip", "fix");
+    }
+
+    @Test
+    void dropsBlankAndDuplicateTerms() {
+        KeywordMatcher matcher = KeywordMatcher.of(List.of("wip", " WIP ", "", "  "));
+
+        assertThat(matcher.getTermCount()).isEqualTo(1);
+        assertThat(matches(matcher, "wip wip")).containsExactly("wip", "wip");
+    }
+
+    @Test
+    void scansOnlyTheGivenRange() {
+        KeywordMatcher matcher = KeywordMatcher.of(DICTIONARY);
+        char[] chars = "xfix wip hackx".toCharArray();
+        KeywordMatcher.Hits hits = new KeywordMatcher.Hits();
+
+        // The range edges count as word boundaries, whatever lies outside them
+        matcher.scan(chars, 1, chars.length - 2, hits);
+
+        assertThat(terms(matcher, hits)).containsExactlyInAnyOrder("fix", "wip", "hack");
+    }
+
+    @Test
+    void agreesWithARegexPerTerm() {
+        KeywordMatcher matcher = KeywordMatcher.of(DICTIONARY);
+        String[] words = { "fix", "FIX", "again", "de", "novo", "wip", "hack", "hacks", "x", "fixagain" };
+        String[] separators = { " ", "  ", ", ", "-", "_" };
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(8); w >= 0; w--) {
+                text.append(words[random.nextInt(words.length)]).append(separators[random.nextInt(separators.length)]);
+            }
+            assertThat(matches(matcher, text.toString()))
+                .as(text.toString())
+                .containsExactlyInAnyOrderElementsOf(naiveMatches(text.toString()));
+        }
+    }
+
+    private static List<String> naiveMatches(String text) {
+        List<String> found = new ArrayList<>();
+        for (String term : DICTIONARY) {
+            Pattern pattern = Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(term) + "(?![\\p{L}\\p{N}])",
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            Matcher matcher = pattern.matcher(text);
+            int from = 0;
+            while (matcher.find(from)) {
+                found.add(term);
+                from = matcher.start() + 1;
+            }
+        }
+        return found;
+    }
+
+    private static List<String> matches(KeywordMatcher matcher, String text) {
+        KeywordMatcher.Hits hits = new KeywordMatcher.Hits();
+        matcher.scan(text, hits);
+        return terms(matcher, hits);
+    }
+
+    private static List<String> terms(KeywordMatcher matcher, KeywordMatcher.Hits hits) {
+        List<String> terms = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) terms.add(matcher.getTerm(hits.get(i)));
+        return terms;
+    }
+}
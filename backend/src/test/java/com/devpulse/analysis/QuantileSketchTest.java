@@ -0,0 +1,111 @@
+package com.devpulse.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static final int N = 100_000;
+
+    @Test
+    void isExactUntilItCompacts() {
+        QuantileSketch sketch = new QuantileSketch(64, new Random(1));
+        for (int i = 1; i <= 50; i++) sketch.add(i);
+
+        assertThat(sketch.getQuantile(0.5)).isEqualTo(25);
+        assertThat(sketch.getQuantile(0.9)).isEqualTo(45);
+        assertThat(sketch.getRank(10.5)).isEqualTo(0.2);
+    }
+
+    @Test
+    void ranksTiesAtTheirMidRank() {
+        QuantileSketch sketch = new QuantileSketch(64, new Random(1));
+        for (double value : new double[] { 1, 2, 2, 2, 3 }) sketch.add(value);
+
+        assertThat(sketch.getRank(2)).isEqualTo(0.5);
+        assertThat(sketch.getRank(0)).isZero();
+        assertThat(sketch.getRank(4)).isEqualTo(1.0);
+    }
+
+    @Test
+    void staysWithinTheRankErrorOnLargeStreams() {
+        for (long seed = 1; seed <= 5; seed++) {
+            QuantileSketch sketch = new QuantileSketch(200, new Random(seed));
+            for (double value : shuffled(N, seed)) sketch.add(value);
+
+            assertThat(sketch.getCount()).isEqualTo(N);
+            assertThat((Integer) ReflectionTestUtils.getField(sketch, "retained")).isLessThanOrEqualTo(3 * 200);
+            assertThat(maxRankError(sketch)).as("seed " + seed).isLessThanOrEqualTo(sketch.getRankError());
+        }
+    }
+
+    @Test
+    void mergedSketchesStayWithinTheRankError() {
+        List<Double> values = shuffled(N, 3);
+        QuantileSketch merged = new QuantileSketch(200, new Random(3));
+        QuantileSketch other = new QuantileSketch(200, new Random(4));
+        for (int i = 0; i < N; i++) (i % 2 == 0 ? merged : other).add(values.get(i));
+        double otherMedian = other.getQuantile(0.5);
+
+        merged.merge(other);
+
+        assertThat(merged.getCount()).isEqualTo(N);
+        assertThat(merged.getQuantile(0)).isZero();
+        assertThat(merged.getQuantile(1)).isEqualTo(N - 1);
+        assertThat(maxRankError(merged)).isLessThanOrEqualTo(merged.getRankError());
+        // The merged-in sketch is left as it was
+        assertThat(other.getCount()).isEqualTo(N / 2);
+        assertThat(other.getQuantile(0.5)).isEqualTo(otherMedian);
+    }
+
+    @Test
+    void copiesAreIndependent() {
+        QuantileSketch sketch = new QuantileSketch(64, new Random(1));
+        for (int i = 0; i < 1000; i++) sketch.add(i);
+        QuantileSketch copy = sketch.copy();
+        for (int i = 0; i < 1000; i++) copy.add(10_000);
+
+        assertThat(sketch.getCount()).isEqualTo(1000);
+        assertThat(sketch.getQuantile(0.5)).isCloseTo(500, within(1000 * sketch.getRankError()));
+        assertThat(copy.getCount()).isEqualTo(2000);
+    }
+
+    @Test
+    void ignoresNaNAndAnswersNaNWhenEmpty() {
+        QuantileSketch sketch = QuantileSketch.withRankError(0.01);
+        sketch.add(Double.NaN);
+
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.getQuantile(0.5)).isNaN();
+        assertThat(sketch.getRank(1)).isZero();
+        assertThat(sketch.getRankError()).isLessThanOrEqualTo(0.01);
+    }
+
+    /**
+     * Largest gap between a quantile's true rank and the requested fraction, over the
+     * percentiles; the values are 0 to N - 1, so a value's true rank is value / N.
+     */
+    private static double maxRankError(QuantileSketch sketch) {
+        double worst = 0;
+        for (int percentile = 1; percentile < 100; percentile++) {
+            double fraction = percentile / 100.0;
+            worst = Math.max(worst, Math.abs(sketch.getQuantile(fraction) / N - fraction));
+            worst = Math.max(worst, Math.abs(sketch.getRank(fraction * N) - fraction));
+        }
+        return worst;
+    }
+
+    private static List<Double> shuffled(int n, long seed) {
+        List<Double> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add((double) i);
+        Collections.shuffle(values, new Random(seed));
+        return values;
+    }
+}
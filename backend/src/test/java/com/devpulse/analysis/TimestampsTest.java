@@ -0,0 +1,84 @@
+package com.devpulse.analysis;
+
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimestampsTest {
+
+    @Test
+    void parsesGitHubTimestamps() {
+        assertThat(Timestamps.parse("2024-01-08T12:34:56Z")).isEqualTo(epochSecond("2024-01-08T12:34:56Z"));
+        assertThat(Timestamps.parse("1970-01-01T00:00:00Z")).isZero();
+    }
+
+    @Test
+    void dropsFractionalSeconds() {
+        assertThat(Timestamps.parse("2024-01-08T12:34:56.999Z")).isEqualTo(epochSecond("2024-01-08T12:34:56Z"));
+        assertThat(Timestamps.parse("2024-01-08T12:34:56.123456789-03:00")).isEqualTo(epochSecond("2024-01-08T15:34:56Z"));
+    }
+
+    @Test
+    void appliesNumericOffsets() {
+        assertThat(Timestamps.parse("2024-01-08T00:30:00+05:30")).isEqualTo(epochSecond("2024-01-07T19:00:00Z"));
+        assertThat(Timestamps.parse("2024-12-31T22:00:00-03:00")).isEqualTo(epochSecond("2025-01-01T01:00:00Z"));
+    }
+
+    @Test
+    void handlesLeapDays() {
+        assertThat(Timestamps.parse("2024-02-29T10:00:00Z")).isEqualTo(epochSecond("2024-02-29T10:00:00Z"));
+        assertThat(Timestamps.parse("2000-02-29T10:00:00Z")).isEqualTo(epochSecond("2000-02-29T10:00:00Z"));
+        assertThat(Timestamps.parse("2024-03-01T00:00:00Z")).isEqualTo(epochSecond("2024-03-01T00:00:00Z"));
+    }
+
+    @Test
+    void readsOtherFormsAsUtcWhenTheOffsetIsMissing() {
+        assertThat(Timestamps.parse("2024-01-08T12:34:56")).isEqualTo(epochSecond("2024-01-08T12:34:56Z"));
+        assertThat(Timestamps.parse("2024-01-08T12:34:56+02:00[Europe/Berlin]")).isEqualTo(epochSecond("2024-01-08T10:34:56Z"));
+        assertThat(Timestamps.parse((String) null)).isEqualTo(EventBatch.NO_TIMESTAMP);
+    }
+
+    @Test
+    void agreesWithJavaTimeOnRandomInstants() {
+        Random random = new Random(7);
+        DateTimeFormatter[] formats = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSXXX")
+        };
+        for (int i = 0; i < 10_000; i++) {
+            long second = random.nextInt(Integer.MAX_VALUE);
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(29) - 14) * 1800);
+            OffsetDateTime time = Instant.ofEpochSecond(second, random.nextInt(1_000_000_000)).atOffset(offset);
+            String text = time.format(formats[random.nextInt(formats.length)]);
+
+            assertThat(Timestamps.parse(text)).as(text).isEqualTo((int) second);
+        }
+    }
+
+    @Test
+    void derivesCalendarFields() {
+        int monday = epochSecond("2024-01-08T23:59:59Z");
+        int epochDay = Timestamps.epochDay(monday);
+
+        assertThat(epochDay).isEqualTo((int) LocalDate.of(2024, 1, 8).toEpochDay());
+        assertThat(Timestamps.hourOfDay(monday)).isEqualTo(23);
+        assertThat(Timestamps.dayOfWeek(epochDay)).isZero();
+        assertThat(Timestamps.dayOfWeek(epochDay + 6)).isEqualTo(6);
+        // Before the epoch the fields still floor
+        assertThat(Timestamps.epochDay(-1)).isEqualTo(-1);
+        assertThat(Timestamps.hourOfDay(-1)).isEqualTo(23);
+        assertThat(Timestamps.dayOfWeek(-1)).isEqualTo(LocalDateTime.of(1969, 12, 31, 0, 0).getDayOfWeek().ordinal());
+    }
+
+    private static int epochSecond(String instant) {
+        return (int) Instant.parse(instant).getEpochSecond();
+    }
+}
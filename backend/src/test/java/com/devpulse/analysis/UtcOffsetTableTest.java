@@ -0,0 +1,61 @@
+package com.devpulse.analysis;
+
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UtcOffsetTableTest {
+
+    /** 2008-01-01, where the table starts */
+    private static final Instant FROM = Instant.parse("2008-01-01T00:00:00Z");
+
+    @Test
+    void switchesOffsetOnTheFirstSecondOfADstTransition() {
+        UtcOffsetTable berlin = UtcOffsetTable.of(ZoneId.of("Europe/Berlin"));
+        // Clocks went forward at 01:00 UTC on 2024-03-31
+        long transition = Instant.parse("2024-03-31T01:00:00Z").getEpochSecond();
+
+        assertThat(berlin.offsetAt(transition - 1)).isEqualTo(3600);
+        assertThat(berlin.offsetAt(transition)).isEqualTo(7200);
+    }
+
+    @Test
+    void keepsTheLastOffsetOnceDstIsAbolished() {
+        // Brazil dropped DST in 2019; Sao Paulo stays at UTC-3 all year since
+        UtcOffsetTable saoPaulo = UtcOffsetTable.of(ZoneId.of("America/Sao_Paulo"));
+
+        assertThat(saoPaulo.offsetAt(Instant.parse("2018-12-01T12:00:00Z").getEpochSecond())).isEqualTo(-2 * 3600);
+        assertThat(saoPaulo.offsetAt(Instant.parse("2024-12-01T12:00:00Z").getEpochSecond())).isEqualTo(-3 * 3600);
+    }
+
+    @Test
+    void fixedOffsetZonesNeedNoTransitions() {
+        UtcOffsetTable kolkata = UtcOffsetTable.of(ZoneId.of("Asia/Kolkata"));
+
+        assertThat(kolkata.offsetAt(0)).isEqualTo(19800);
+        assertThat(kolkata.toLocal(Instant.parse("2024-01-07T19:00:00Z").getEpochSecond()))
+            .isEqualTo(Instant.parse("2024-01-08T00:30:00Z").getEpochSecond());
+        assertThat(UtcOffsetTable.UTC.offsetAt(1_700_000_000L)).isZero();
+    }
+
+    @Test
+    void agreesWithZoneRulesAroundEveryTransition() {
+        for (String id : new String[] { "America/New_York", "America/Sao_Paulo", "Europe/London", "Australia/Lord_Howe", "Pacific/Chatham" }) {
+            ZoneRules rules = ZoneId.of(id).getRules();
+            UtcOffsetTable table = UtcOffsetTable.of(ZoneId.of(id));
+            Instant until = Instant.now().plusSeconds(365L * 86400);
+            for (ZoneOffsetTransition t = rules.nextTransition(FROM); t != null && t.getInstant().isBefore(until);
+                 t = rules.nextTransition(t.getInstant())) {
+                long second = t.toEpochSecond();
+                for (long probe : new long[] { second - 3600, second - 1, second, second + 1, second + 3600 }) {
+                    assertThat(table.offsetAt(probe)).as(id + " at " + Instant.ofEpochSecond(probe))
+                        .isEqualTo(rules.getOffset(Instant.ofEpochSecond(probe)).getTotalSeconds());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.devpulse.controller;
+
+import com.devpulse.service.AdaptiveBulkhead;
+import com.devpulse.service.AnalysisResponseCache;
+import com.devpulse.service.AnalysisService;
+import com.devpulse.service.ClusterRoutingService;
+import com.devpulse.service.ScorePercentileService;
+import com.devpulse.service.TeamAnalysisService;
+import com.devpulse.service.TrackedUserService;
+import com.devpulse.service.UserTimeZoneService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every per-user endpoint answers 400 to names that are not GitHub logins, before any
+ * service sees them.
+ */
+class LoginValidationTest {
+
+    private static final String INVALID = "octo.cat";
+    private static final String TOO_LONG = "a".repeat(40);
+
+    private final AnalysisService analysisService = mock(AnalysisService.class);
+    private final TrackedUserService trackedUsers = mock(TrackedUserService.class);
+    private final UserTimeZoneService timeZones = mock(UserTimeZoneService.class);
+    private final TeamAnalysisService teamAnalysis = mock(TeamAnalysisService.class);
+    private final AnalysisResponseCache responses = mock(AnalysisResponseCache.class);
+    private final ClusterRoutingService cluster = mock(ClusterRoutingService.class);
+
+    private LocalValidatorFactoryBean validator;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        AnalysisController analysis = new AnalysisController(analysisService, trackedUsers, timeZones, teamAnalysis,
+            mock(ScorePercentileService.class), responses, mock(AdaptiveBulkhead.class), cluster);
+        mvc = MockMvcBuilders.standaloneSetup(analysis, new TrackedUserController(trackedUsers, cluster))
+            .setValidator(validator)
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validator.close();
+    }
+
+    @Test
+    void perUserEndpointsRejectInvalidLogins() throws Exception {
+        for (String name : new String[]{INVALID, TOO_LONG, "octo%20cat"}) {
+            mvc.perform(get("/api/analyze/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(get("/api/analyze/" + name + "/stream")).andExpect(status().isBadRequest());
+            mvc.perform(get("/api/analyze/org/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(get("/api/percentiles/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(get("/api/report/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(get("/api/snapshot/" + name).param("maxEvents", "100")).andExpect(status().isBadRequest());
+            mvc.perform(get("/api/trends/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(put("/api/timezone/" + name).param("zone", "UTC")).andExpect(status().isBadRequest());
+            mvc.perform(delete("/api/timezone/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(put("/api/tracked/" + name)).andExpect(status().isBadRequest());
+            mvc.perform(delete("/api/tracked/" + name)).andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(analysisService, trackedUsers, timeZones, teamAnalysis, responses, cluster);
+    }
+
+    @Test
+    void validLoginsReachTheHandler() throws Exception {
+        when(cluster.replicate(anyString(), anyString(), anyString(), anyBoolean())).thenReturn(CompletableFuture.completedFuture(0));
+
+        mvc.perform(asyncDispatch(mvc.perform(put("/api/tracked/octo-cat42")).andReturn())).andExpect(status().is(507));
+        mvc.perform(asyncDispatch(mvc.perform(delete("/api/tracked/octo-cat42")).andReturn())).andExpect(status().isNotFound());
+        verify(trackedUsers).register("octo-cat42");
+    }
+}
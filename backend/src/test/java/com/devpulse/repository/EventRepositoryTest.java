@@ -0,0 +1,131 @@
+package com.devpulse.repository;
+
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventRepositoryTest {
+
+    private static final int JAN_1_2024 = 1704067200;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private EventRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("schema.sql")
+            .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        repository = new EventRepository(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void saveAllSkipsEventsAlreadyStored() {
+        repository.saveAll("octocat", events(3, 2, 1));
+        repository.saveAll("octocat", events(4, 3, 2));
+
+        assertThat(count()).isEqualTo(4);
+        assertThat(ids(repository.findRecent("octocat", 10))).containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void saveAllSkipsDuplicatesWithinOneBatch() {
+        repository.saveAll("octocat", events(2, 2, 1));
+
+        assertThat(count()).isEqualTo(2);
+    }
+
+    @Test
+    void saveAllSkipsEventsWithoutId() {
+        repository.saveAll("octocat", events(2, EventBatch.NO_ID, 1));
+
+        assertThat(ids(repository.findRecent("octocat", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void findLatestEventIdIsNoIdForUnknownUser() {
+        assertThat(repository.findLatestEventId("octocat")).isEqualTo(EventBatch.NO_ID);
+    }
+
+    @Test
+    void findLatestEventIdOnlyLooksAtTheUser() {
+        repository.saveAll("octocat", events(5, 3));
+        repository.saveAll("hubot", events(9));
+
+        assertThat(repository.findLatestEventId("octocat")).isEqualTo(5);
+        assertThat(repository.findLatestEventId("hubot")).isEqualTo(9);
+    }
+
+    @Test
+    void findRecentReturnsNewestFirstUpToLimit() {
+        repository.saveAll("octocat", events(1, 7, 3));
+        repository.saveAll("octocat", events(5, 2));
+        repository.saveAll("hubot", events(8));
+
+        assertThat(ids(repository.findRecent("octocat", 3))).containsExactly(7L, 5L, 3L);
+        assertThat(ids(repository.findRecent("octocat", 10))).containsExactly(7L, 5L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void findSinceSkipsOlderAndUndatedEvents() {
+        repository.saveAll("octocat", EventBatch.builder(4)
+            .add(4, EventType.PUSH, JAN_1_2024 + 60, "octocat/hello")
+            .add(3, EventType.PUSH, EventBatch.NO_TIMESTAMP, "octocat/hello")
+            .add(2, EventType.PUSH, JAN_1_2024, "octocat/hello")
+            .add(1, EventType.PUSH, JAN_1_2024 - 1, "octocat/hello")
+            .build());
+
+        assertThat(ids(repository.findSince("octocat", JAN_1_2024, 10))).containsExactly(4L, 2L);
+        assertThat(ids(repository.findSince("octocat", JAN_1_2024, 1))).containsExactly(4L);
+    }
+
+    @Test
+    void findRecentRestoresEventFields() {
+        EventBatch stored = EventBatch.builder(1)
+            .add(42, EventType.PUSH, JAN_1_2024, "octocat/hello")
+            .addKeyword("wip")
+            .addKeyword("wip")
+            .build();
+        repository.saveAll("octocat", stored);
+
+        EventBatch loaded = repository.findRecent("octocat", 1);
+        assertThat(loaded.size()).isEqualTo(1);
+        assertThat(loaded.getType(0)).isEqualTo(EventType.PUSH);
+        assertThat(loaded.getCreatedAt(0)).isEqualTo(JAN_1_2024);
+        assertThat(loaded.getRepoNameOf(0)).isEqualTo("octocat/hello");
+        assertThat(loaded.getKeywordEnd(0) - loaded.getKeywordStart(0)).isEqualTo(2);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM github_event", Integer.class);
+    }
+
+    private static EventBatch events(long... ids) {
+        EventBatch.Builder builder = EventBatch.builder(ids.length);
+        for (long id : ids) builder.add(id, EventType.PUSH, JAN_1_2024, "octocat/hello");
+        return builder.build();
+    }
+
+    private static Long[] ids(EventBatch events) {
+        Long[] ids = new Long[events.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = events.getId(i);
+        return ids;
+    }
+}
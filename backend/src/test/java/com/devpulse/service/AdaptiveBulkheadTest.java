@@ -0,0 +1,130 @@
+package com.devpulse.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveBulkheadTest {
+
+    private static final long MILLI = 1_000_000;
+
+    private AdaptiveBulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        if (bulkhead != null) bulkhead.shutdown();
+    }
+
+    @Test
+    void queuesTasksOverTheLimitAndStartsThemInOrder() {
+        bulkhead = new AdaptiveBulkhead("test", 2, 1, 10, 5, 60_000, 1);
+        List<CompletableFuture<String>> started = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<String> task = new CompletableFuture<>();
+            started.add(task);
+            int index = i;
+            results.add(bulkhead.execute(() -> started.get(index)));
+        }
+
+        assertThat(bulkhead.getInFlight()).isEqualTo(2);
+        assertThat(bulkhead.getQueued()).isEqualTo(2);
+
+        started.get(0).complete("first");
+        assertThat(results.get(0).join()).isEqualTo("first");
+        assertThat(bulkhead.getInFlight()).isEqualTo(2);
+        assertThat(bulkhead.getQueued()).isEqualTo(1);
+
+        started.get(2).complete("third");
+        assertThat(results.get(2).join()).isEqualTo("third");
+        assertThat(results.get(3)).isNotDone();
+        assertThat(bulkhead.getQueued()).isZero();
+    }
+
+    @Test
+    void rejectsOnceTheQueueIsFull() {
+        bulkhead = new AdaptiveBulkhead("test", 1, 1, 10, 1, 60_000, 7);
+        bulkhead.execute(CompletableFuture::new);
+        bulkhead.execute(CompletableFuture::new);
+
+        CompletableFuture<Object> shed = bulkhead.execute(CompletableFuture::new);
+
+        assertThatThrownBy(shed::join).isInstanceOf(CompletionException.class)
+            .cause().isInstanceOf(ServiceOverloadedException.class)
+            .extracting(e -> ((ServiceOverloadedException) e).getRetryAfterSeconds()).isEqualTo(7L);
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failsTasksThatWaitTooLong() throws Exception {
+        bulkhead = new AdaptiveBulkhead("test", 1, 1, 10, 5, 50, 1);
+        bulkhead.execute(CompletableFuture::new);
+
+        CompletableFuture<Object> queued = bulkhead.execute(CompletableFuture::new);
+
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(ServiceOverloadedException.class);
+        assertThat(bulkhead.getQueued()).isZero();
+        assertThat(bulkhead.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void freesTheSlotWhenATaskThrows() {
+        bulkhead = new AdaptiveBulkhead("test", 1, 1, 10, 5, 60_000, 1);
+
+        CompletableFuture<Object> failed = bulkhead.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getInFlight()).isZero();
+        assertThat(bulkhead.execute(() -> CompletableFuture.completedFuture("ok")).join()).isEqualTo("ok");
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndTheLimitIsUsed() {
+        bulkhead = new AdaptiveBulkhead("test", 4, 1, 100, 0, 60_000, 1);
+        for (int i = 0; i < 4; i++) bulkhead.execute(CompletableFuture::new);
+
+        for (int i = 0; i < 50; i++) bulkhead.observe(10 * MILLI, false);
+
+        // Growth stops once the four tasks in flight use less than half of it
+        assertThat(bulkhead.getLimit()).isBetween(5, 9);
+    }
+
+    @Test
+    void doesNotGrowWhileIdle() {
+        bulkhead = new AdaptiveBulkhead("test", 4, 1, 100, 0, 60_000, 1);
+
+        for (int i = 0; i < 50; i++) bulkhead.observe(10 * MILLI, false);
+
+        assertThat(bulkhead.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesAboveTheBaseline() {
+        bulkhead = new AdaptiveBulkhead("test", 50, 2, 100, 0, 60_000, 1);
+        for (int i = 0; i < 200; i++) bulkhead.observe(10 * MILLI, false);
+
+        for (int i = 0; i < 20; i++) bulkhead.observe(100 * MILLI, false);
+
+        assertThat(bulkhead.getLimit()).isLessThan(30).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void backsOffOnFailuresDownToTheMinimum() {
+        bulkhead = new AdaptiveBulkhead("test", 10, 3, 100, 0, 60_000, 1);
+
+        bulkhead.observe(0, true);
+        assertThat(bulkhead.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 50; i++) bulkhead.observe(0, true);
+        assertThat(bulkhead.getLimit()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,43 @@
+package com.devpulse.service;
+
+import com.devpulse.service.AnalysisResponseCache.EncodedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisResponseCacheTest {
+
+    // max-age 0: every get recomputes
+    private final AnalysisResponseCache cache = new AnalysisResponseCache(new ObjectMapper(), 0, 1 << 20);
+
+    @Test
+    void recomputedReportWithOnlyANewAnalysisDateKeepsItsEtagAndBytes() {
+        EncodedResponse first = cache.get("report", "octocat", () -> report(10, "2026-01-01T10:00:00")).join();
+        EncodedResponse second = cache.get("report", "octocat", () -> report(10, "2026-01-01T10:05:00")).join();
+
+        assertThat(second.getEtag()).isEqualTo(first.getEtag());
+        assertThat(second.getJson()).isEqualTo(first.getJson());
+        assertThat(second.matches(first.getEtag())).isTrue();
+    }
+
+    @Test
+    void changedContentGetsANewEtag() {
+        EncodedResponse first = cache.get("report", "octocat", () -> report(10, "2026-01-01T10:00:00")).join();
+        EncodedResponse second = cache.get("report", "octocat", () -> report(11, "2026-01-01T10:05:00")).join();
+
+        assertThat(second.getEtag()).isNotEqualTo(first.getEtag());
+        assertThat(new String(second.getJson())).contains("\"totalCommits\":11", "2026-01-01T10:05:00");
+    }
+
+    private static CompletableFuture<Map<String, Object>> report(int commits, String analysisDate) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("username", "octocat");
+        report.put("totalCommits", commits);
+        report.put("analysisDate", analysisDate);
+        return CompletableFuture.completedFuture(report);
+    }
+}
@@ -0,0 +1,59 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.UtcOffsetTable;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisServiceTest {
+
+    private EventStoreService eventStore;
+    private AnalysisService analysisService;
+
+    @BeforeEach
+    void setUp() {
+        eventStore = mock(EventStoreService.class);
+        UserTimeZoneService timeZones = mock(UserTimeZoneService.class);
+        when(timeZones.getZone("octocat")).thenReturn(UtcOffsetTable.UTC);
+        analysisService = new AnalysisService(mock(GitHubService.class), eventStore, timeZones,
+            mock(ScorePercentileService.class), mock(ClusterRoutingService.class), new SimpleMeterRegistry(), Clock.systemUTC());
+    }
+
+    @Test
+    void concurrentAnalysesAtOnePriorityShareOneFetch() {
+        CompletableFuture<EventBatch> events = new CompletableFuture<>();
+        when(eventStore.getUserEventsAsync("octocat", Priority.BACKGROUND)).thenReturn(events);
+
+        CompletableFuture<Map<String, Object>> first = analysisService.analyzeUser("octocat", Priority.BACKGROUND);
+        CompletableFuture<Map<String, Object>> second = analysisService.analyzeUser("octocat", Priority.BACKGROUND);
+        events.complete(EventBatch.builder(0).build());
+
+        assertThat(first.join()).isEqualTo(second.join());
+        verify(eventStore, times(1)).getUserEventsAsync("octocat", Priority.BACKGROUND);
+    }
+
+    @Test
+    void interactiveAnalysisDoesNotJoinABackgroundOne() {
+        CompletableFuture<EventBatch> background = new CompletableFuture<>();
+        when(eventStore.getUserEventsAsync("octocat", Priority.BACKGROUND)).thenReturn(background);
+        when(eventStore.getUserEventsAsync("octocat", Priority.INTERACTIVE))
+            .thenReturn(CompletableFuture.completedFuture(EventBatch.builder(0).build()));
+
+        analysisService.analyzeUser("octocat", Priority.BACKGROUND);
+        CompletableFuture<Map<String, Object>> interactive = analysisService.analyzeUser("octocat", Priority.INTERACTIVE);
+
+        assertThat(interactive).isCompleted();
+        verify(eventStore).getUserEventsAsync("octocat", Priority.INTERACTIVE);
+    }
+}
@@ -0,0 +1,268 @@
+package com.devpulse.service;
+
+import com.devpulse.analysis.ActivityRollup;
+import com.devpulse.analysis.EventBatch;
+import com.devpulse.analysis.EventType;
+import com.devpulse.analysis.KeywordMatcher;
+import com.devpulse.config.GitHubConfig;
+import com.devpulse.repository.EventRepository;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestTemplate;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * Syncs against a real {@link GitHubService} whose HTTP calls are answered by a
+ * {@link MockRestServiceServer}, with events stored in an embedded H2 database.
+ */
+class EventStoreServiceTest {
+
+    private static final String API = "https://github.test";
+    private static final String EVENTS = API + "/users/octocat/events?per_page=100";
+
+    private EmbeddedDatabase database;
+    private EventRepository repository;
+    private MockRestServiceServer github;
+    private ExecutorService githubExecutor;
+    private GitHubCallScheduler scheduler;
+    private AdaptiveBulkhead bulkhead;
+    private UserTimeZoneService timeZones;
+    private EventStoreService store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("schema.sql")
+            .build();
+        repository = new EventRepository(new JdbcTemplate(database));
+
+        GitHubConfig config = new GitHubConfig();
+        ReflectionTestUtils.setField(config, "apiBaseUrl", API);
+        ReflectionTestUtils.setField(config, "fetchThreads", 2);
+        ReflectionTestUtils.setField(config, "maxPages", 10);
+        ReflectionTestUtils.setField(config, "maxEvents", 1000);
+        ReflectionTestUtils.setField(config, "eventFields", new String[]{"id", "type", "created_at", "repo.name"});
+
+        RestTemplate restTemplate = new RestTemplate();
+        github = MockRestServiceServer.bindTo(restTemplate).build();
+        githubExecutor = Executors.newFixedThreadPool(2);
+        scheduler = new GitHubCallScheduler(githubExecutor, config, 20, 0.2, 0, 1000, 10000, 1000);
+        scheduler.start();
+        bulkhead = new AdaptiveBulkhead("github", 16, 2, 64, 32, 2000, 5);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("githubRestTemplate", restTemplate);
+        GitHubService githubService = new GitHubService(beans.getBeanProvider(RestTemplate.class),
+            new GitHubResponseCache(0, 1 << 20), new ObjectMapper(), scheduler, config, new SimpleMeterRegistry(),
+            KeywordMatcher.of(List.of("wip")), bulkhead);
+
+        timeZones = new UserTimeZoneService(new String[0]);
+        store = new EventStoreService(githubService, repository, timeZones, Clock.fixed(Instant.parse("2024-01-10T00:00:00Z"), ZoneOffset.UTC));
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "maxEvents", 10000);
+        ReflectionTestUtils.setField(store, "maxRollups", 10000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+        bulkhead.shutdown();
+        githubExecutor.shutdownNow();
+        database.shutdown();
+    }
+
+    @Test
+    void firstSyncStoresEveryPage() throws Exception {
+        github.expect(requestTo(EVENTS)).andRespond(page(link(2), 4, 3));
+        github.expect(requestTo(EVENTS + "&page=2")).andRespond(page(null, 2, 1));
+
+        EventBatch events = store.getUserEventsAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(ids(events)).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(repository.findLatestEventId("octocat")).isEqualTo(4);
+    }
+
+    @Test
+    void refreshFetchesOnlyEventsNewerThanTheStoredOne() throws Exception {
+        repository.saveAll("octocat", stored(11, 10));
+        // Page 2 holds the first known event (11), so page 3 is never requested
+        github.expect(requestTo(EVENTS)).andRespond(page(link(3), 15, 14, 13));
+        github.expect(requestTo(EVENTS + "&page=2")).andRespond(page(link(3), 12, 11, 10));
+
+        EventBatch events = store.getUserEventsAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(ids(events)).containsExactly(15L, 14L, 13L, 12L, 11L, 10L);
+        assertThat(repository.findLatestEventId("octocat")).isEqualTo(15);
+    }
+
+    @Test
+    void refreshStopsAtFirstPageWhenNothingIsNew() throws Exception {
+        repository.saveAll("octocat", stored(12, 11));
+        github.expect(requestTo(EVENTS)).andRespond(page(link(3), 12, 11, 10));
+
+        EventBatch events = store.getUserEventsAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(ids(events)).containsExactly(12L, 11L);
+    }
+
+    @Test
+    void usernamesAreStoredCaseInsensitively() throws Exception {
+        repository.saveAll("octocat", stored(11));
+        github.expect(requestTo(API + "/users/OctoCat/events?per_page=100")).andRespond(page(null, 12, 11));
+
+        EventBatch events = store.getUserEventsAsync("OctoCat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(ids(events)).containsExactly(12L, 11L);
+    }
+
+    @Test
+    void analysisReadsOnlyTheWindowOfStoredHistory() throws Exception {
+        // 2023-11-01, more than 30 days before the fixed "now"
+        repository.saveAll("octocat", EventBatch.builder(1).add(5, EventType.PUSH, 1698796800, "octocat/hello").build());
+        repository.saveAll("octocat", stored(11, 10));
+        github.expect(requestTo(EVENTS)).andRespond(page(null, 12, 11));
+
+        EventBatch events = store.getUserEventsAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        assertThat(ids(events)).containsExactly(12L, 11L, 10L);
+        assertThat(repository.findRecent("octocat", 10).size()).isEqualTo(4);
+    }
+
+    @Test
+    void limitedSyncWithMoreNewEventsThanItsLimitIsNotStored() throws Exception {
+        repository.saveAll("octocat", stored(10));
+        github.expect(requestTo(EVENTS)).andRespond(page(null, 13, 12, 11, 10));
+
+        EventBatch limited = store.getUserEventsAsync("octocat", 2, Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(ids(limited)).containsExactly(13L, 12L);
+        assertThat(repository.findLatestEventId("octocat")).isEqualTo(10);
+
+        // The next unlimited sync still sees every event above the stored one
+        github.reset();
+        github.expect(requestTo(EVENTS)).andRespond(page(null, 13, 12, 11, 10));
+
+        EventBatch events = store.getUserEventsAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(ids(events)).containsExactly(13L, 12L, 11L, 10L);
+    }
+
+    @Test
+    void limitedSyncThatReachesStoredHistoryIsStored() throws Exception {
+        repository.saveAll("octocat", stored(10));
+        github.expect(requestTo(EVENTS)).andRespond(page(null, 12, 11, 10));
+
+        EventBatch events = store.getUserEventsAsync("octocat", 5, Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+
+        assertThat(ids(events)).containsExactly(12L, 11L, 10L);
+        assertThat(repository.findLatestEventId("octocat")).isEqualTo(12);
+    }
+
+    @Test
+    void unlimitedSyncNeverSharesALimitedRead() throws Exception {
+        repository.saveAll("octocat", stored(10));
+        github.expect(ExpectedCount.times(2), requestTo(EVENTS)).andRespond(page(null, 13, 12, 11, 10));
+
+        CompletableFuture<EventBatch> limited = store.getUserEventsAsync("octocat", 2, Priority.BACKGROUND);
+        CompletableFuture<EventBatch> unlimited = store.getUserEventsAsync("octocat", Priority.INTERACTIVE);
+
+        assertThat(ids(limited.get(5, TimeUnit.SECONDS))).containsExactly(13L, 12L);
+        assertThat(ids(unlimited.get(5, TimeUnit.SECONDS))).containsExactly(13L, 12L, 11L, 10L);
+        github.verify();
+    }
+
+    @Test
+    void rollupIsRebuiltWhenTheUsersZoneChanges() throws Exception {
+        // 2024-01-01T01:00:00Z is still December 31st in Sao Paulo
+        repository.saveAll("octocat", EventBatch.builder(1).add(10, EventType.PUSH, 1704070800, "octocat/hello").build());
+        github.expect(ExpectedCount.times(2), requestTo(EVENTS)).andRespond(page(null, 10));
+
+        ActivityRollup utc = store.getRollupAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+        timeZones.setZone("octocat", ZoneId.of("America/Sao_Paulo"));
+        ActivityRollup local = store.getRollupAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        long now = Instant.parse("2024-01-10T00:00:00Z").getEpochSecond();
+        assertThat(utc.getMonthly(now, 2)).containsExactly(0, 1);
+        assertThat(local.getMonthly(now, 2)).containsExactly(1, 0);
+    }
+
+    @Test
+    void leastRecentlyUsedRollupsAreEvicted() throws Exception {
+        ReflectionTestUtils.setField(store, "maxRollups", 1);
+        repository.saveAll("octocat", stored(10));
+        github.expect(ExpectedCount.times(2), requestTo(EVENTS)).andRespond(page(null, 10));
+        github.expect(requestTo(API + "/users/hubot/events?per_page=100")).andRespond(page(null));
+
+        ActivityRollup first = store.getRollupAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+        store.getRollupAsync("hubot", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+        ActivityRollup rebuilt = store.getRollupAsync("octocat", Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        github.verify();
+        assertThat(rebuilt).isNotSameAs(first);
+        long now = Instant.parse("2024-01-10T00:00:00Z").getEpochSecond();
+        assertThat(rebuilt.getDaily(now, 10)).containsExactly(1, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    private static ResponseCreator page(String link, long... ids) {
+        StringBuilder body = new StringBuilder("[");
+        for (long id : ids) {
+            if (body.length() > 1) body.append(',');
+            body.append("{\"id\":\"").append(id).append("\",\"type\":\"PushEvent\",")
+                .append("\"created_at\":\"2024-01-01T00:00:00Z\",\"repo\":{\"name\":\"octocat/hello\"}}");
+        }
+        body.append(']');
+        HttpHeaders headers = new HttpHeaders();
+        if (link != null) headers.set(HttpHeaders.LINK, link);
+        return withSuccess(body.toString(), MediaType.APPLICATION_JSON).headers(headers);
+    }
+
+    private static String link(int lastPage) {
+        return "<" + EVENTS + "&page=2>; rel=\"next\", <" + EVENTS + "&page=" + lastPage + ">; rel=\"last\"";
+    }
+
+    private static EventBatch stored(long... ids) {
+        EventBatch.Builder builder = EventBatch.builder(ids.length);
+        for (long id : ids) builder.add(id, EventType.PUSH, 1704067200, "octocat/hello");
+        return builder.build();
+    }
+
+    private static Long[] ids(EventBatch events) {
+        Long[] ids = new Long[events.size()];
+        for (int i = 0; i < ids.length; i++) ids[i] = events.getId(i);
+        return ids;
+    }
+}
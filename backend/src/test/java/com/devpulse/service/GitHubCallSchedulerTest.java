@@ -0,0 +1,201 @@
+package com.devpulse.service;
+
+import com.devpulse.config.GitHubConfig;
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GitHubCallSchedulerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private GitHubCallScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsQueuedCallsByPriority() throws Exception {
+        scheduler = start(1, 1000);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> blocker = scheduler.submit(Priority.INTERACTIVE, () -> {
+            running.countDown();
+            await(release);
+            return "blocker";
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<String> order = new CopyOnWriteArrayList<>();
+        CompletableFuture<?> refresh = scheduler.submit(Priority.REFRESH, record(order, "refresh"));
+        CompletableFuture<?> background = scheduler.submit(Priority.BACKGROUND, record(order, "background"));
+        CompletableFuture<?> interactive = scheduler.submit(Priority.INTERACTIVE, record(order, "interactive"));
+        release.countDown();
+        CompletableFuture.allOf(blocker, refresh, background, interactive).get(5, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly("interactive", "background", "refresh");
+        assertThat(scheduler.getCallCount(Priority.INTERACTIVE)).isEqualTo(2);
+        assertThat(scheduler.getCallCount(Priority.REFRESH)).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheQuotaReserveForInteractiveCalls() throws Exception {
+        scheduler = start(4, 1000);
+        scheduler.observe(quota(100, 10));
+
+        CompletableFuture<String> background = scheduler.submit(Priority.BACKGROUND, () -> "background");
+        CompletableFuture<String> refresh = scheduler.submit(Priority.REFRESH, () -> "refresh");
+        CompletableFuture<String> interactive = scheduler.submit(Priority.INTERACTIVE, () -> "interactive");
+
+        assertThat(interactive.get(5, TimeUnit.SECONDS)).isEqualTo("interactive");
+        assertThatThrownBy(() -> background.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(GitHubRateLimitException.class);
+        assertThatThrownBy(() -> refresh.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(GitHubRateLimitException.class);
+        assertThat(scheduler.getShedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsEveryCallOnceTheQuotaIsGone() {
+        scheduler = start(4, 1000);
+        scheduler.observe(quota(100, 0));
+
+        CompletableFuture<String> interactive = scheduler.submit(Priority.INTERACTIVE, () -> "interactive");
+
+        assertThatThrownBy(() -> interactive.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(GitHubRateLimitException.class);
+        assertThat(scheduler.getCallCount(Priority.INTERACTIVE)).isZero();
+    }
+
+    @Test
+    void shedsBackgroundCallsOverTheQueueCap() throws Exception {
+        scheduler = start(1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(Priority.INTERACTIVE, () -> {
+            running.countDown();
+            await(release);
+            return "blocker";
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = scheduler.submit(Priority.BACKGROUND, () -> "queued");
+        CompletableFuture<String> shed = scheduler.submit(Priority.REFRESH, () -> "shed");
+        release.countDown();
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+        assertThatThrownBy(() -> shed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(GitHubRateLimitException.class);
+    }
+
+    @Test
+    void retriesSecondaryRateLimitsWithBackoff() throws Exception {
+        scheduler = start(4, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> call = scheduler.submit(Priority.BACKGROUND, () -> {
+            if (attempts.incrementAndGet() < 3) throw rateLimited(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders());
+            return "ok";
+        });
+
+        assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThat(scheduler.getRetryCount()).isEqualTo(2);
+        assertThat(scheduler.getCallCount(Priority.BACKGROUND)).isEqualTo(3);
+    }
+
+    @Test
+    void givesUpAfterTheLastRetry() {
+        scheduler = start(4, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> call = scheduler.submit(Priority.BACKGROUND, () -> {
+            attempts.incrementAndGet();
+            throw rateLimited(HttpStatus.FORBIDDEN, new HttpHeaders());
+        });
+
+        assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(GitHubRateLimitException.class);
+        assertThat(attempts).hasValue(4);
+    }
+
+    @Test
+    void failsInteractiveCallsFastWhenTheWaitIsTooLong() {
+        scheduler = start(4, 1000);
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.set(HttpHeaders.RETRY_AFTER, "60");
+
+        CompletableFuture<String> call = scheduler.submit(Priority.INTERACTIVE, () -> {
+            throw rateLimited(HttpStatus.FORBIDDEN, retryAfter);
+        });
+
+        assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS)).cause()
+            .isInstanceOf(GitHubRateLimitException.class)
+            .extracting(e -> ((GitHubRateLimitException) e).getRetryAfterSeconds()).isEqualTo(60L);
+        assertThat(scheduler.getRetryCount()).isZero();
+    }
+
+    @Test
+    void doesNotRetryOtherErrors() {
+        scheduler = start(4, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> call = scheduler.submit(Priority.BACKGROUND, () -> {
+            attempts.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), new byte[0], StandardCharsets.UTF_8);
+        });
+
+        assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(HttpClientErrorException.NotFound.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    private GitHubCallScheduler start(int threads, int maxQueuedBackground) {
+        GitHubConfig config = mock(GitHubConfig.class);
+        when(config.getFetchThreads()).thenReturn(threads);
+        GitHubCallScheduler started = new GitHubCallScheduler(executor, config, 20, 0.2, 3, 10, 10_000, maxQueuedBackground);
+        started.start();
+        return started;
+    }
+
+    private static HttpHeaders quota(int limit, int remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Limit", String.valueOf(limit));
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        return headers;
+    }
+
+    private static HttpClientErrorException rateLimited(HttpStatus status, HttpHeaders headers) {
+        byte[] body = "{\"message\": \"You have exceeded a secondary rate limit\"}".getBytes(StandardCharsets.UTF_8);
+        return HttpClientErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8);
+    }
+
+    private static Supplier<String> record(List<String> order, String name) {
+        return () -> {
+            order.add(name);
+            return name;
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.devpulse.service;
+
+import com.devpulse.service.GitHubCallScheduler.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrackedUserServiceTest {
+
+    private AnalysisService analysisService;
+    private TrackedUserService trackedUsers;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = mock(AnalysisService.class);
+        // The refresh loop is not started, so only foreground requests compute analyses
+        trackedUsers = new TrackedUserService(analysisService, mock(GitHubCallScheduler.class), mock(ClusterRoutingService.class),
+            600_000, 0.1, 0.3, 4, 3, 600_000, 86_400_000, 100);
+        trackedUsers.register("octocat");
+    }
+
+    @Test
+    void servesTheWarmAnalysisUntilInvalidated() {
+        when(analysisService.analyzeUser("octocat")).thenReturn(
+            CompletableFuture.completedFuture(analysis("UTC")),
+            CompletableFuture.completedFuture(analysis("America/Sao_Paulo")));
+
+        assertThat(trackedUsers.analyzeUser("octocat").join()).containsEntry("zone", "UTC");
+        assertThat(trackedUsers.analyzeUser("octocat").join()).containsEntry("zone", "UTC");
+        trackedUsers.invalidate("OctoCat");
+
+        assertThat(trackedUsers.analyzeUser("octocat").join()).containsEntry("zone", "America/Sao_Paulo");
+        verify(analysisService, times(2)).analyzeUser("octocat");
+    }
+
+    @Test
+    void dropsAnalysesStartedBeforeTheInvalidation() {
+        CompletableFuture<Map<String, Object>> inFlight = new CompletableFuture<>();
+        when(analysisService.analyzeUser("octocat")).thenReturn(
+            inFlight,
+            CompletableFuture.completedFuture(analysis("America/Sao_Paulo")));
+
+        CompletableFuture<Map<String, Object>> first = trackedUsers.analyzeUser("octocat");
+        trackedUsers.invalidate("octocat");
+        inFlight.complete(analysis("UTC"));
+
+        assertThat(first.join()).containsEntry("zone", "UTC");
+        assertThat(trackedUsers.analyzeUser("octocat").join()).containsEntry("zone", "America/Sao_Paulo");
+    }
+
+    @Test
+    void refreshesOnlyTheUsersThisInstanceOwns() {
+        ClusterRoutingService cluster = mock(ClusterRoutingService.class);
+        when(cluster.owns("octocat")).thenReturn(true);
+        when(cluster.owns("hubot")).thenReturn(false);
+        when(analysisService.analyzeUser(anyString(), eq(Priority.REFRESH))).thenReturn(new CompletableFuture<>());
+        // Due right away, with credits for both
+        TrackedUserService refreshing = new TrackedUserService(analysisService, mock(GitHubCallScheduler.class), cluster,
+            1, 0, 10, 4, 3, 600_000, 86_400_000, 100);
+        refreshing.register("octocat");
+        refreshing.register("hubot");
+
+        ReflectionTestUtils.invokeMethod(refreshing, "tick");
+
+        verify(analysisService).analyzeUser("octocat", Priority.REFRESH);
+        verify(analysisService, never()).analyzeUser("hubot", Priority.REFRESH);
+    }
+
+    @Test
+    void chargesTheCallsRefreshesMadeAndCountsTheBacklog() {
+        GitHubCallScheduler scheduler = mock(GitHubCallScheduler.class);
+        ClusterRoutingService cluster = mock(ClusterRoutingService.class);
+        when(cluster.owns(anyString())).thenReturn(true);
+        when(analysisService.analyzeUser(anyString(), eq(Priority.REFRESH)))
+            .thenReturn(CompletableFuture.completedFuture(analysis("UTC")));
+        // Both refreshes paged through 20 calls each, far beyond the 14 credits a tick adds
+        when(scheduler.getCallCount(Priority.REFRESH)).thenReturn(0L, 40L);
+        TrackedUserService refreshing = new TrackedUserService(analysisService, scheduler, cluster,
+            1, 0, 10, 4, 3, 600_000, 86_400_000, 100);
+        refreshing.register("octocat");
+        refreshing.register("hubot");
+
+        ReflectionTestUtils.invokeMethod(refreshing, "tick");
+        assertThat(refreshing.getBacklog()).isZero();
+        ReflectionTestUtils.invokeMethod(refreshing, "tick");
+
+        assertThat(refreshing.getBacklog()).isEqualTo(2);
+        verify(analysisService).analyzeUser("octocat", Priority.REFRESH);
+        verify(analysisService).analyzeUser("hubot", Priority.REFRESH);
+    }
+
+    private static Map<String, Object> analysis(String zone) {
+        return Map.of("username", "octocat", "zone", zone);
+    }
+}
@@ -6,9 +6,10 @@ interface RecommendationCardProps {
   score: number;
   advice: string;
   suspectWords: string[];
+  suspectWordCounts?: Record<string, number>;
 }
 
-const RecommendationCard = ({ score, advice, suspectWords }: RecommendationCardProps) => {
+const RecommendationCard = ({ score, advice, suspectWords, suspectWordCounts = {} }: RecommendationCardProps) => {
   const getScoreVariant = () => {
     if (score >= 7) return { color: 'text-[#238636]', icon: CheckCircle, label: 'Excelente' };
     if (score >= 5) return { color: 'text-[#d29922]', icon: AlertTriangle, label: 'Atenção' };
@@ -49,6 +50,7 @@ const RecommendationCard = ({ score, advice, suspectWords }: RecommendationCardP
                   className="px-2 py-1 bg-[#f85149]/20 text-[#f85149] text-xs rounded-md border border-[#f85149]/30"
                 >
                   {word}
+                  {suspectWordCounts[word] > 1 && ` ×${suspectWordCounts[word]}`}
                 </span>
               ))}
             </div>
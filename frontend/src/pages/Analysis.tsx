@@ -108,6 +108,7 @@ const Analysis = () => {
   const recommendationScore = analysis.recommendationScore ?? 0;
   const advice = analysis.advice ?? "Análise em andamento...";
   const suspectWords = analysis.suspectWords ?? [];
+  const suspectWordCounts = analysis.suspectWordCounts ?? {};
   const trend = analysis.trend ?? "indeterminado";
 
   // Safe access for new metrics
@@ -223,6 +224,7 @@ const Analysis = () => {
             score={recommendationScore}
             advice={advice}
             suspectWords={suspectWords}
+            suspectWordCounts={suspectWordCounts}
           />
           
           <div className="space-y-4">
@@ -1,5 +1,13 @@
 import api from './api';
-import { DevPulseAnalysis, DevPulseReport, DevPulseTrend, DevPulseRecommendation } from '@/types/devpulse';
+import {
+  DevPulseAnalysis,
+  DevPulseAnalysisStreamHandlers,
+  DevPulseReport,
+  DevPulsePercentiles,
+  DevPulseTeamAnalysis,
+  DevPulseTrend,
+  DevPulseRecommendation,
+} from '@/types/devpulse';
 
 export const devPulseService = {
   async analyzeUser(username: string): Promise<DevPulseAnalysis> {
@@ -7,6 +15,41 @@ export const devPulseService = {
     return response.data;
   },
 
+  /**
+   * Abre o stream SSE da análise e entrega cada parte assim que chega.
+   * Retorna uma função que encerra a conexão.
+   */
+  streamAnalysis(username: string, handlers: DevPulseAnalysisStreamHandlers): () => void {
+    const source = new EventSource(`${api.defaults.baseURL}/api/analyze/${username}/stream`);
+    const on = <T,>(name: string, handler?: (data: T) => void) =>
+      source.addEventListener(name, (event) => handler?.(JSON.parse((event as MessageEvent).data)));
+
+    on('profile', handlers.onProfile);
+    on('counts', handlers.onCounts);
+    on('activity', handlers.onActivity);
+    on('scores', handlers.onScores);
+    source.addEventListener('complete', (event) => {
+      handlers.onComplete?.(JSON.parse((event as MessageEvent).data));
+      source.close();
+    });
+    source.addEventListener('error', (event) => {
+      const data = (event as MessageEvent).data;
+      handlers.onError?.(data ? JSON.parse(data) : {});
+      source.close();
+    });
+    return () => source.close();
+  },
+
+  async analyzeOrganization(org: string): Promise<DevPulseTeamAnalysis> {
+    const response = await api.get(`/api/analyze/org/${org}`);
+    return response.data;
+  },
+
+  async getUserPercentiles(username: string): Promise<DevPulsePercentiles> {
+    const response = await api.get(`/api/percentiles/${username}`);
+    return response.data;
+  },
+
   async getUserReport(username: string): Promise<DevPulseReport> {
     const response = await api.get(`/api/report/${username}`);
     return response.data;
@@ -17,8 +60,8 @@ export const devPulseService = {
     return response.data;
   },
 
-  async getUserTrends(username: string): Promise<DevPulseTrend> {
-    const response = await api.get(`/api/trends/${username}`);
+  async getUserTrends(username: string, days = 30, weeks = 12, months = 12): Promise<DevPulseTrend> {
+    const response = await api.get(`/api/trends/${username}`, { params: { days, weeks, months } });
     return response.data;
   },
 };
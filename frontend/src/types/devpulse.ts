@@ -6,6 +6,7 @@ export interface DevPulseAnalysis {
   consecutiveDays: number;
   idleDays: number;
   suspectWords: string[];
+  suspectWordCounts: Record<string, number>;
   trend: string;
   recommendationScore: number;
   advice: string;
@@ -26,6 +27,75 @@ export interface DevPulseAnalysis {
   projectDiversity: number;
 }
 
+export interface DevPulseProfile {
+  login: string;
+  name?: string;
+  avatar_url?: string;
+  html_url?: string;
+  bio?: string;
+  public_repos?: number;
+  followers?: number;
+  following?: number;
+  created_at?: string;
+}
+
+export type DevPulseAnalysisCounts = Pick<DevPulseAnalysis,
+  'username' | 'averageCommitsPerDay' | 'commitFrequency' | 'projectDiversity' | 'idleDays' | 'trend'>;
+
+export type DevPulseAnalysisActivity = Pick<DevPulseAnalysis,
+  'activityHours' | 'commitPatterns' | 'lateNightCommits' | 'weekendCommitRatio' | 'consecutiveDays'>;
+
+export type DevPulseAnalysisScores = Pick<DevPulseAnalysis,
+  'recommendationScore' | 'productivityScore' | 'workLifeBalance' | 'advice' | 'suspectWords' | 'suspectWordCounts'>;
+
+export interface DevPulseAnalysisStreamHandlers {
+  onProfile?: (profile: DevPulseProfile) => void;
+  onCounts?: (counts: DevPulseAnalysisCounts) => void;
+  onActivity?: (activity: DevPulseAnalysisActivity) => void;
+  onScores?: (scores: DevPulseAnalysisScores) => void;
+  onComplete?: (analysis: DevPulseAnalysis) => void;
+  onError?: (error: { status?: number; retryAfter?: number }) => void;
+}
+
+export interface DevPulseScorePercentiles {
+  p25: number;
+  p50: number;
+  p75: number;
+  p90: number;
+}
+
+export interface DevPulseTeamAnalysis {
+  organization: string;
+  members: number;
+  analyzedMembers: number;
+  failedMembers: { username: string; error: 'rate_limited' | 'analysis_failed'; retryAfter?: number }[];
+  eventsPerMember: number;
+  totalCommits: number;
+  activityHours: Record<string, number>;
+  commitPatterns: DevPulseAnalysis['commitPatterns'];
+  weekendCommitRatio: number;
+  lateNightCommitRatio: number;
+  workLifeBalance: number;
+  suspectWordCounts: Record<string, number>;
+  scorePercentiles: {
+    recommendationScore: DevPulseScorePercentiles;
+    productivityScore: DevPulseScorePercentiles;
+    workLifeBalance: DevPulseScorePercentiles;
+  };
+}
+
+export interface DevPulseScorePlacement {
+  value: number;
+  percentile: number;
+}
+
+export interface DevPulsePercentiles {
+  username: string;
+  population: number;
+  rankError: number;
+  scores: Partial<Record<'recommendationScore' | 'productivityScore' | 'workLifeBalance', DevPulseScorePlacement>>;
+}
+
 export interface DevPulseReport {
   username: string;
   totalCommits: number;
@@ -36,6 +106,7 @@ export interface DevPulseReport {
 
 export interface DevPulseTrend {
   username: string;
+  dailyTrend: number[];
   weeklyTrend: number[];
   monthlyTrend: number[];
   activityLevel: 'low' | 'medium' | 'high';